@@ -0,0 +1,41 @@
+package com.sparta.northwind;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.services.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's caching annotations. The caches themselves are Caffeine caches
+ * configured through the spring.cache.* properties.
+ * <p>
+ * Also provides the coalescing of concurrent customer lookups that sits behind the customers cache,
+ * so a burst of misses for one customer costs one query.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CUSTOMERS_CACHE = "customers";
+
+    @Bean
+    public SingleFlight<String, CustomerDto> customerLookups() {
+        return new SingleFlight<>();
+    }
+
+    @Bean
+    public MeterBinder customerLookupMetrics(SingleFlight<String, CustomerDto> customerLookups) {
+        return registry -> {
+            FunctionCounter.builder("customers.lookups.coalesced", customerLookups, SingleFlight::coalescedCount)
+                    .description("Customer lookups that shared a concurrent lookup's query instead of running their own")
+                    .register(registry);
+            Gauge.builder("customers.lookups.in.flight", customerLookups, SingleFlight::inFlightCount)
+                    .description("Customer lookup queries running that later lookups can share")
+                    .register(registry);
+        };
+    }
+}
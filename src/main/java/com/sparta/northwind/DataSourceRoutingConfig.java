@@ -0,0 +1,72 @@
+package com.sparta.northwind;
+
+import com.sparta.northwind.datasource.ReadWriteRoutingDataSource;
+import com.sparta.northwind.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, switched on by setting {@code northwind.datasource.replica.url}. Replaces the single
+ * auto-configured pool with two Hikari pools, the primary from the usual {@code spring.datasource.*} properties
+ * and the replica from {@code northwind.datasource.replica.*}, behind a {@link ReadWriteRoutingDataSource}.
+ * Both pools are beans, so each gets its own {@code hikaricp.*} metrics.
+ */
+@Configuration
+@ConditionalOnProperty("northwind.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("northwind.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${northwind.datasource.replica.url}") String url,
+                                              @Value("${northwind.datasource.replica.username:#{null}}") String username,
+                                              @Value("${northwind.datasource.replica.password:#{null}}") String password) {
+        // Credentials default to the primary's, as a replica usually has the same users
+        HikariDataSource dataSource = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username != null ? username : properties.determineUsername())
+                .password(password != null ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The data source JPA and everything else use. The lazy proxy defers the choice of pool to the first statement,
+     * by which point the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, meterRegistry));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${northwind.datasource.read-your-writes:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -14,6 +14,8 @@ public class OpenApiConfig {
                 .info(new Info()
                         .title("Northwind API")
                         .version("1.0")
-                        .description("API documentation for the Northwind application"));
+                        .description("API documentation for the Northwind application. Customer endpoints read and write JSON, "
+                                + "CBOR (application/cbor), Smile (application/x-jackson-smile) and Protobuf (application/x-protobuf, "
+                                + "schema in src/main/proto/customers.proto), chosen by the Accept and Content-Type headers"));
     }
 }
\ No newline at end of file
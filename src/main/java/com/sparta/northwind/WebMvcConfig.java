@@ -0,0 +1,21 @@
+package com.sparta.northwind;
+
+import com.sparta.northwind.controllers.CustomerProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Appends the Protobuf converter after the Jackson ones, so it is only chosen when a caller asks for it.
+ * Registered as a bean it would be placed ahead of them and answer requests that accept anything.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CustomerProtobufHttpMessageConverter());
+    }
+}
@@ -1,47 +1,250 @@
 package com.sparta.northwind.controllers;
 
+import com.sparta.northwind.dtos.CustomerBatchResult;
+import com.sparta.northwind.dtos.CustomerCount;
 import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerPage;
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.dtos.CustomerSearchCriteria;
+import com.sparta.northwind.dtos.CustomerSuggestion;
 import com.sparta.northwind.entities.Customer;
+import com.sparta.northwind.services.CustomerChangeFeed;
+import com.sparta.northwind.services.CustomerExportService;
 import com.sparta.northwind.services.CustomerService;
+import com.sparta.northwind.services.CustomerStats;
+import com.sparta.northwind.services.CustomerWriteBehindQueue;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController //@Controller and @ResponseBody
 @RequestMapping("/customers")
 @Validated
 public class CustomerController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+    /** A write-behind queue drains within a flush interval or two, so a full one is worth retrying soon. */
+    static final String WRITE_BEHIND_RETRY_AFTER_SECONDS = "1";
 
     private final CustomerService service;
+    private final CustomerExportService exportService;
+    private final CustomerChangeFeed changeFeed;
+    /** Null unless write-behind is enabled. */
+    private final CustomerWriteBehindQueue writeBehindQueue;
 
-    public CustomerController(CustomerService service) {
+    public CustomerController(CustomerService service, CustomerExportService exportService,
+                              CustomerChangeFeed changeFeed, Optional<CustomerWriteBehindQueue> writeBehindQueue) {
         this.service = service;
+        this.exportService = exportService;
+        this.changeFeed = changeFeed;
+        this.writeBehindQueue = writeBehindQueue.orElse(null);
     }
 
 
     @Operation(summary = "Get all customers",
-            description = "Retrieve a list of all customers")
+            description = "Retrieve a page of customers ordered by ID. Pass the X-Next-Cursor header value as 'after' to fetch the next page. "
+                    + "Supports If-None-Match with the returned ETag")
     @GetMapping("/")
-    public ResponseEntity<List<CustomerDto>> getAllCustomers() {
-        List<CustomerDto> customers = service.getAllCustomer();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<List<CustomerDto>> getAllCustomers(
+            @Min(1) @Max(CustomerService.MAX_PAGE_SIZE) @RequestParam(defaultValue = "" + CustomerService.DEFAULT_PAGE_SIZE) int limit,
+            @Size(min = 1, max = 5) @RequestParam(required = false) String after,
+            WebRequest webRequest) {
+        // The tag is a digest of the page itself, so it agrees across instances and sees writes made anywhere.
+        // An unchanged page is still read, from the query cache when it holds it, but never serialized
+        CustomerPage page = service.getCustomerPage(after, limit);
+        String etag = CustomerETags.forEncoding(CustomerETags.forPage(page), webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(etag)) {
+            // 304 status and ETag header have already been set
+            return null;
+        }
+
+        if (!page.hasNext()) {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(page.getCustomers());
+        }
+
+        // The cursor travels in headers so the body stays a plain list of customers in every encoding
+        String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.getNextCursor())
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"")
+                .body(page.getCustomers());
+    }
+
+    @Operation(summary = "Get many customers by ID",
+            description = "Retrieve up to 100 customers, given as a comma-separated ids parameter, with one query. "
+                    + "Customers come back in the order requested; IDs with no customer are left out")
+    @GetMapping(path = {"", "/"}, params = "ids")
+    public ResponseEntity<List<CustomerDto>> getCustomersByIds(
+            @Size(min = 1, max = CustomerService.MAX_MULTI_GET_SIZE) @RequestParam List<@NotBlank @Size(max = 5) String> ids) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(service.getCustomersByIds(ids));
+    }
+
+    @Operation(summary = "Search customers",
+            description = "Find customers whose company name, city, region and/or postal code start with the given values. "
+                    + "Supports page, size and sort parameters; X-Has-Next tells whether another page follows")
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerDto>> searchCustomers(@Valid CustomerSearchCriteria criteria,
+                                                             @PageableDefault(size = CustomerService.DEFAULT_PAGE_SIZE) Pageable pageable) {
+        Slice<CustomerDto> results = service.searchCustomers(criteria, pageable);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(results.hasNext()));
+        if (results.hasNext()) {
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pageable.getPageNumber() + 1)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(results.getContent());
+    }
+
+    @Operation(summary = "Suggest customers",
+            description = "Type-ahead over company and contact names starting with the given text, ignoring case. "
+                    + "Served from an in-memory index")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CustomerSuggestion>> suggestCustomers(
+            @Size(min = 1, max = 40) @RequestParam String q,
+            @Min(1) @Max(CustomerService.MAX_SUGGESTIONS) @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(service.suggestCustomers(q, limit));
+    }
+
+    @Operation(summary = "Customer totals",
+            description = "Number of customers and of distinct countries, cities and regions. "
+                    + "Served from in-memory counters kept current on every write")
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getCustomerStats() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        totals.put("customers", service.countCustomers());
+        totals.put("countries", (long) service.countCustomersBy(CustomerStats.Dimension.COUNTRY).size());
+        totals.put("cities", (long) service.countCustomersBy(CustomerStats.Dimension.CITY).size());
+        totals.put("regions", (long) service.countCustomersBy(CustomerStats.Dimension.REGION).size());
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(totals);
+    }
+
+    @Operation(summary = "Customers per country",
+            description = "Number of customers in each country, most first; a null value counts customers with no country")
+    @GetMapping("/stats/countries")
+    public ResponseEntity<List<CustomerCount>> getCustomersPerCountry() {
+        return customerCounts(CustomerStats.Dimension.COUNTRY);
+    }
+
+    @Operation(summary = "Customers per city",
+            description = "Number of customers in each city, most first; a null value counts customers with no city")
+    @GetMapping("/stats/cities")
+    public ResponseEntity<List<CustomerCount>> getCustomersPerCity() {
+        return customerCounts(CustomerStats.Dimension.CITY);
+    }
+
+    @Operation(summary = "Customers per region",
+            description = "Number of customers in each region, most first; a null value counts customers with no region")
+    @GetMapping("/stats/regions")
+    public ResponseEntity<List<CustomerCount>> getCustomersPerRegion() {
+        return customerCounts(CustomerStats.Dimension.REGION);
+    }
+
+    private ResponseEntity<List<CustomerCount>> customerCounts(CustomerStats.Dimension dimension) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(service.countCustomersBy(dimension));
+    }
+
+    @Operation(summary = "Stream customer changes",
+            description = "Server-Sent Events stream of customers created, updated and deleted from now on, "
+                    + "as created, updated and deleted events. Reconnecting with Last-Event-ID replays recent events; "
+                    + "a resync event means changes were missed and the collection should be reloaded")
+    @GetMapping(path = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(emitter);
+    }
+
+    @Operation(summary = "Export all customers",
+            description = "Stream every customer as NDJSON or CSV, optionally gzip-compressed")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(@RequestParam(defaultValue = "ndjson") String format,
+                                                                 @RequestParam(defaultValue = "false") boolean gzip) {
+        CustomerExportService.Format exportFormat = CustomerExportService.Format.fromParameter(format);
+
+        // Rows are written as they are read from the database, on an async request thread
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+                exportService.exportCustomers(gzipStream, exportFormat);
+                gzipStream.finish();
+            } else {
+                exportService.exportCustomers(outputStream, exportFormat);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("customers." + exportFormat.getFileExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @Operation(summary = "Get customer by ID",
-            description = "Retrieve a customer from the database using their unique ID")
+            description = "Retrieve a customer from the database using their unique ID. Supports If-None-Match with the returned ETag")
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDto> getCustomerById(@Size(min = 1, max = 5) @PathVariable String id) {
+    public ResponseEntity<CustomerDto> getCustomerById(@Size(min = 1, max = 5) @PathVariable String id, WebRequest webRequest) {
         CustomerDto customer = service.getCustomerByID(id);
-        return customer != null ? ResponseEntity.ok(customer) : ResponseEntity.notFound().build();
+        if (customer == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Spring answers a matching If-None-Match with 304 and skips writing the body
+        return ResponseEntity.ok()
+                .eTag(CustomerETags.forEncoding(CustomerETags.forCustomer(customer), webRequest.getHeader(HttpHeaders.ACCEPT)))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(customer);
     }
 
     @Operation(summary = "Add a new customer",
@@ -52,8 +255,18 @@ public class CustomerController {
         return ResponseEntity.status(201).body(savedCustomer);
     }
 
+    @Operation(summary = "Add many customers",
+            description = "Create up to 10,000 customers in one request. Each customer is reported as CREATED or CONFLICT")
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerBatchResult>> addCustomers(
+            @Size(min = 1, max = CustomerService.MAX_BATCH_SIZE) @RequestBody List<@Valid CustomerDto> customers) {
+        List<CustomerBatchResult> results = service.createCustomers(customers);
+        return ResponseEntity.ok(results);
+    }
+
     @Operation(summary = "Update a customer",
-            description = "Update an existing customer record in the database using their unique ID")
+            description = "Update an existing customer record in the database using their unique ID. "
+                    + "With write-behind enabled the update is queued and answered with 202, or 503 while the queue is full")
     @PutMapping("/{id}")
     public ResponseEntity<CustomerDto> updateCustomerById(@Valid @RequestBody CustomerDto customerDto, @Size(min = 1, max = 5) @PathVariable String id) {
 
@@ -72,14 +285,42 @@ public class CustomerController {
             customerDto.getCity()
         );
 
+        if (writeBehindQueue != null) {
+            if (!writeBehindQueue.offer(customerWithPathId)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, WRITE_BEHIND_RETRY_AFTER_SECONDS)
+                        .build();
+            }
+            return ResponseEntity.accepted().body(customerWithPathId);
+        }
+
         CustomerDto updatedCustomer = service.updateCustomer(customerWithPathId);
         return updatedCustomer != null ? ResponseEntity.ok(updatedCustomer) : ResponseEntity.notFound().build();
     }
 
+    @Operation(summary = "Partially update a customer",
+            description = "Change only the fields present in the request body; omitted or null fields keep their current values")
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchCustomerById(@Valid @RequestBody CustomerPatchDto patch, @Size(min = 1, max = 5) @PathVariable String id) {
+        if (writeBehindQueue != null) {
+            // A queued PUT is older than this patch, so it is written first rather than over it later
+            writeBehindQueue.flush(List.of(id));
+        }
+        if (service.patchCustomer(id, patch)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @Operation(summary = "Delete a customer",
             description = "Delete a customer in the database")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCustomer(@Size(min = 1, max = 5) @PathVariable String id) {
+        if (writeBehindQueue != null) {
+            // A queued PUT flushed after the delete would bring the customer back
+            writeBehindQueue.discard(List.of(id));
+        }
         if (service.deleteCustomerById(id)) {
             return ResponseEntity.noContent().build();
         } else {
@@ -87,11 +328,31 @@ public class CustomerController {
         }
     }
 
+    @Operation(summary = "Delete many customers",
+            description = "Delete up to 1,000 customers by ID in a single statement and report how many existed")
+    @DeleteMapping("/batch")
+    public ResponseEntity<Map<String, Integer>> deleteCustomers(
+            @Size(min = 1, max = CustomerService.MAX_BULK_DELETE_SIZE) @RequestBody List<@NotBlank @Size(max = 5) String> ids) {
+        if (writeBehindQueue != null) {
+            writeBehindQueue.discard(ids);
+        }
+        int deleted = service.deleteCustomersByIds(ids);
+        return ResponseEntity.ok(Map.of("deleted", deleted));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
 
+    /**
+     * A concurrent request inserted one of the same customers between the existence check and the insert.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Customer already exists");
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<String> handleConstraintViolation(ConstraintViolationException e) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
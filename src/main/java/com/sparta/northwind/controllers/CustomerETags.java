@@ -0,0 +1,97 @@
+package com.sparta.northwind.controllers;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerPage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strong entity tags for customer resources.
+ */
+final class CustomerETags {
+
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char NULL_MARKER = '\u0000';
+
+    private static final List<MediaType> BINARY_ENCODINGS = List.of(
+            MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile"),
+            CustomerProtobufHttpMessageConverter.PROTOBUF);
+
+    private CustomerETags() {
+    }
+
+    /**
+     * Digest of the fields that make up the customer representation.
+     */
+    static String forCustomer(CustomerDto customer) {
+        StringBuilder content = new StringBuilder(64);
+        appendCustomer(content, customer);
+        return digest(content);
+    }
+
+    /**
+     * Digest of a page of the collection: the fields of every customer on it and the cursor to the next page.
+     * It depends only on the rows returned, so every instance computes the same tag for the same data, whichever
+     * instance or direct database write changed it last. The page is bounded, so hashing it is cheap.
+     */
+    static String forPage(CustomerPage page) {
+        StringBuilder content = new StringBuilder(64 * (page.getCustomers().size() + 1));
+        for (CustomerDto customer : page.getCustomers()) {
+            appendCustomer(content, customer);
+        }
+        append(content, page.getNextCursor());
+        return digest(content);
+    }
+
+    /**
+     * The tag for the encoding the Accept header selects. JSON, CBOR, Smile and Protobuf bodies of the same resource
+     * are different representations, so a strong tag must not match more than one of them. JSON, also chosen for
+     * wildcards and missing headers, keeps the plain tag.
+     */
+    static String forEncoding(String etag, @Nullable String accept) {
+        if (accept == null) {
+            return etag;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return etag;
+        }
+        // Highest quality first, as in Spring's own negotiation
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return etag;
+            }
+            for (MediaType encoding : BINARY_ENCODINGS) {
+                if (encoding.equalsTypeAndSubtype(acceptedType)) {
+                    return etag.substring(0, etag.length() - 1) + "-" + encoding.getSubtype() + "\"";
+                }
+            }
+        }
+        return etag;
+    }
+
+    private static void appendCustomer(StringBuilder content, CustomerDto customer) {
+        append(content, customer.getCustomerID());
+        append(content, customer.getCompanyName());
+        append(content, customer.getContactName());
+        append(content, customer.getCity());
+    }
+
+    private static String digest(StringBuilder content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static void append(StringBuilder content, String value) {
+        content.append(value == null ? String.valueOf(NULL_MARKER) : value).append(FIELD_SEPARATOR);
+    }
+}
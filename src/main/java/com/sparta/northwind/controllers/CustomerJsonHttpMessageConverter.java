@@ -0,0 +1,142 @@
+package com.sparta.northwind.controllers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sparta.northwind.dtos.CustomerDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes {@link CustomerDto} and collections of it as JSON with a {@link JsonGenerator} and pre-encoded field names,
+ * skipping databind's reflective serializer lookup per element. Rows are written straight to the response stream
+ * as they are visited, so nothing beyond the generator's own buffer is held.
+ * <p>
+ * The output is byte-for-byte what Jackson databind produces with the application's {@link ObjectMapper}:
+ * the generator comes from the mapper's writer, so escaping and pretty-printing settings carry over, properties
+ * are written in declaration order and nulls follow the mapper's inclusion setting. Reading is left to the
+ * Jackson converter.
+ */
+@Component
+public class CustomerJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final SerializableString CUSTOMER_ID = new SerializedString("customerID");
+    private static final SerializableString COMPANY_NAME = new SerializedString("companyName");
+    private static final SerializableString CONTACT_NAME = new SerializedString("contactName");
+    private static final SerializableString CITY = new SerializedString("city");
+
+    private final ObjectWriter objectWriter;
+    private final boolean writeNulls;
+
+    public CustomerJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectWriter = objectMapper.writer();
+        JsonInclude.Include inclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+        this.writeNulls = inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CustomerDto.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return (type == null ? supports(clazz) : supportsType(type)) && canWrite(mediaType);
+    }
+
+    /**
+     * Spring lists producible media types by the value's class alone, so collections are announced here and
+     * their element type is checked by {@link #canWrite(Type, Class, MediaType)}.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || Collection.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    /**
+     * {@code CustomerDto} itself, or any collection declared with {@code CustomerDto} elements.
+     */
+    private static boolean supportsType(Type type) {
+        if (type == CustomerDto.class) {
+            return true;
+        }
+        return type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() instanceof Class<?> rawType
+                && Collection.class.isAssignableFrom(rawType)
+                && parameterizedType.getActualTypeArguments()[0] == CustomerDto.class;
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        // The response stream is flushed here but closed by the container, as with the Jackson converter
+        try (JsonGenerator generator = objectWriter.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (value instanceof CustomerDto customerDto) {
+                writeCustomer(generator, customerDto);
+            } else {
+                Collection<?> customers = (Collection<?>) value;
+                generator.writeStartArray(customers, customers.size());
+                for (Object customer : customers) {
+                    writeCustomer(generator, (CustomerDto) customer);
+                }
+                generator.writeEndArray();
+            }
+            generator.flush();
+        }
+    }
+
+    private void writeCustomer(JsonGenerator generator, CustomerDto customerDto) throws IOException {
+        generator.writeStartObject(customerDto);
+        writeField(generator, CUSTOMER_ID, customerDto.getCustomerID());
+        writeField(generator, COMPANY_NAME, customerDto.getCompanyName());
+        writeField(generator, CONTACT_NAME, customerDto.getContactName());
+        writeField(generator, CITY, customerDto.getCity());
+        generator.writeEndObject();
+    }
+
+    private void writeField(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        } else if (writeNulls) {
+            generator.writeFieldName(name);
+            generator.writeNull();
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+}
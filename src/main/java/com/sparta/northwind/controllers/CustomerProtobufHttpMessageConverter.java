@@ -0,0 +1,208 @@
+package com.sparta.northwind.controllers;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.sparta.northwind.dtos.CustomerBatchResult;
+import com.sparta.northwind.dtos.CustomerDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes {@link CustomerDto}, lists of it and batch results as {@value #PROTOBUF_VALUE}, following
+ * {@code src/main/proto/customers.proto}. The messages are encoded field by field with protobuf's coded streams
+ * instead of generated classes, so the DTOs stay the only model and lists are streamed one customer at a time.
+ * Registered last by {@link com.sparta.northwind.WebMvcConfig}.
+ */
+public class CustomerProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    // Customer
+    private static final int CUSTOMER_ID = 1;
+    private static final int COMPANY_NAME = 2;
+    private static final int CONTACT_NAME = 3;
+    private static final int CITY = 4;
+
+    // CustomerBatchResult
+    private static final int RESULT_CUSTOMER_ID = 1;
+    private static final int RESULT_STATUS = 2;
+
+    // The repeated field of CustomerList and CustomerBatchResultList
+    private static final int ELEMENT = 1;
+    private static final int ELEMENT_TAG = ELEMENT << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    public CustomerProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CustomerDto.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return (type == CustomerDto.class || isListOf(type, CustomerDto.class)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        boolean supported = type == null ? supports(clazz)
+                : type == CustomerDto.class || isListOf(type, CustomerDto.class) || isListOf(type, CustomerBatchResult.class);
+        return supported && canWrite(mediaType);
+    }
+
+    /**
+     * Spring lists producible media types by the value's class alone, so collections are announced here and
+     * their element type is checked by {@link #canWrite(Type, Class, MediaType)}.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || Collection.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    /**
+     * A collection declared with the given element type that an {@link ArrayList} can be assigned to.
+     */
+    private static boolean isListOf(Type type, Class<?> elementType) {
+        return type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() instanceof Class<?> rawType
+                && Collection.class.isAssignableFrom(rawType)
+                && rawType.isAssignableFrom(ArrayList.class)
+                && parameterizedType.getActualTypeArguments()[0] == elementType;
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        // Buffers internally and is only flushed, never closed, so the container keeps control of the stream
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (value instanceof CustomerDto customerDto) {
+            writeCustomer(output, customerDto);
+        } else {
+            // A list message is just its elements one after another, each prefixed with its length
+            for (Object element : (Collection<?>) value) {
+                output.writeTag(ELEMENT, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                if (element instanceof CustomerDto customerDto) {
+                    output.writeUInt32NoTag(customerSize(customerDto));
+                    writeCustomer(output, customerDto);
+                } else {
+                    CustomerBatchResult result = (CustomerBatchResult) element;
+                    output.writeUInt32NoTag(resultSize(result));
+                    writeResult(output, result);
+                }
+            }
+        }
+        output.flush();
+    }
+
+    private static int customerSize(CustomerDto customerDto) {
+        return stringSize(CUSTOMER_ID, customerDto.getCustomerID())
+                + stringSize(COMPANY_NAME, customerDto.getCompanyName())
+                + stringSize(CONTACT_NAME, customerDto.getContactName())
+                + stringSize(CITY, customerDto.getCity());
+    }
+
+    private static void writeCustomer(CodedOutputStream output, CustomerDto customerDto) throws IOException {
+        writeString(output, CUSTOMER_ID, customerDto.getCustomerID());
+        writeString(output, COMPANY_NAME, customerDto.getCompanyName());
+        writeString(output, CONTACT_NAME, customerDto.getContactName());
+        writeString(output, CITY, customerDto.getCity());
+    }
+
+    private static int resultSize(CustomerBatchResult result) {
+        return stringSize(RESULT_CUSTOMER_ID, result.getCustomerID())
+                + CodedOutputStream.computeEnumSize(RESULT_STATUS, statusNumber(result.getStatus()));
+    }
+
+    private static void writeResult(CodedOutputStream output, CustomerBatchResult result) throws IOException {
+        writeString(output, RESULT_CUSTOMER_ID, result.getCustomerID());
+        output.writeEnum(RESULT_STATUS, statusNumber(result.getStatus()));
+    }
+
+    private static int statusNumber(CustomerBatchResult.Status status) {
+        if (status == null) {
+            return 0;
+        }
+        return switch (status) {
+            case CREATED -> 1;
+            case CONFLICT -> 2;
+        };
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        // The fields are proto3 optional, so null is sent as absent and an empty string as present
+        if (value != null) {
+            output.writeString(field, value);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody());
+        try {
+            if (type == CustomerDto.class) {
+                return readCustomer(input);
+            }
+            List<CustomerDto> customers = new ArrayList<>();
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                if (tag == ELEMENT_TAG) {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    customers.add(readCustomer(input));
+                    input.popLimit(limit);
+                } else {
+                    input.skipField(tag);
+                }
+            }
+            return customers;
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid Protobuf body: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    /**
+     * Reads Customer fields up to the current limit, or to the end of the body for a top-level message.
+     * Unknown fields are skipped so callers built from a newer schema can still send to this one.
+     */
+    private static CustomerDto readCustomer(CodedInputStream input) throws IOException {
+        String customerID = null;
+        String companyName = null;
+        String contactName = null;
+        String city = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                input.skipField(tag);
+                continue;
+            }
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case CUSTOMER_ID -> customerID = input.readStringRequireUtf8();
+                case COMPANY_NAME -> companyName = input.readStringRequireUtf8();
+                case CONTACT_NAME -> contactName = input.readStringRequireUtf8();
+                case CITY -> city = input.readStringRequireUtf8();
+                default -> input.skipField(tag);
+            }
+        }
+        return new CustomerDto(customerID, companyName, contactName, city);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sparta.northwind.controllers;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes {@code application/cbor} with the application's Jackson configuration, so CBOR bodies bind
+ * exactly like JSON ones (constructor parameter names, inclusion and naming settings). Replaces the converter
+ * Spring would otherwise register with a bare mapper.
+ */
+@Component
+public class JacksonCborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    public JacksonCborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        // The builder bean is prototype scoped, so setting the factory does not leak into the JSON mapper
+        super(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+}
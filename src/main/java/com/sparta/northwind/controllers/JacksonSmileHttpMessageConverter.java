@@ -0,0 +1,19 @@
+package com.sparta.northwind.controllers;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes {@code application/x-jackson-smile} with the application's Jackson configuration, so Smile bodies
+ * bind exactly like JSON ones. Replaces the converter Spring would otherwise register with a bare mapper.
+ */
+@Component
+public class JacksonSmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    public JacksonSmileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        // The builder bean is prototype scoped, so setting the factory does not leak into the JSON mapper
+        super(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.sparta.northwind.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * <p>
+ * The read-only flag of a transaction is only published once the transaction has begun, after JPA has asked for
+ * its connection, so this data source must sit behind a {@link LazyConnectionDataSourceProxy}: the proxy hands out
+ * a placeholder and only picks the real pool when the first statement runs.
+ * <p>
+ * Every connection taken from a pool is counted as {@value #METRIC_NAME}, tagged with the pool and whether the
+ * transaction was read-only. Read-only connections from the primary are reads pinned there by
+ * {@link #pinToPrimary()}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    public static final String METRIC_NAME = "northwind.datasource.connections";
+
+    private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    /** Undoes {@link #pinToPrimary()} when closed. */
+    public interface PrimaryPin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Counter primaryReadOnly;
+    private final Counter primaryReadWrite;
+    private final Counter replicaReadOnly;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.primaryReadOnly = counter(meterRegistry, PRIMARY, true);
+        this.primaryReadWrite = counter(meterRegistry, PRIMARY, false);
+        this.replicaReadOnly = counter(meterRegistry, REPLICA, true);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String pool, boolean readOnly) {
+        return Counter.builder(METRIC_NAME)
+                .description("Connections taken from the primary and replica pools")
+                .tag("pool", pool)
+                .tag("read.only", String.valueOf(readOnly))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends every transaction on the current thread to the primary, read-only or not, until the returned pin is
+     * closed. Used to let a caller read its own writes before the replica has caught up.
+     */
+    public static PrimaryPin pinToPrimary() {
+        Boolean previous = primaryOnly.get();
+        primaryOnly.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                primaryOnly.remove();
+            } else {
+                primaryOnly.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Whether the current thread is inside {@link #pinToPrimary()}.
+     */
+    public static boolean isPinnedToPrimary() {
+        return primaryOnly.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isReplicaRead() ? REPLICA : PRIMARY;
+    }
+
+    private static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPinnedToPrimary();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        count();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        count();
+        return super.getConnection(username, password);
+    }
+
+    private void count() {
+        if (isReplicaRead()) {
+            replicaReadOnly.increment();
+        } else if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryReadOnly.increment();
+        } else {
+            primaryReadWrite.increment();
+        }
+    }
+}
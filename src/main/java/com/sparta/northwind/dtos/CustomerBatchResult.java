@@ -0,0 +1,59 @@
+package com.sparta.northwind.dtos;
+
+import java.util.Objects;
+
+/**
+ * Outcome of one customer in a batch create request.
+ */
+public class CustomerBatchResult {
+
+    public enum Status {
+        CREATED,
+        CONFLICT
+    }
+
+    private final String customerID;
+    private final Status status;
+
+    public CustomerBatchResult(String customerID, Status status) {
+        this.customerID = customerID;
+        this.status = status;
+    }
+
+    public static CustomerBatchResult created(String customerID) {
+        return new CustomerBatchResult(customerID, Status.CREATED);
+    }
+
+    public static CustomerBatchResult conflict(String customerID) {
+        return new CustomerBatchResult(customerID, Status.CONFLICT);
+    }
+
+    public String getCustomerID() {
+        return customerID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerBatchResult result = (CustomerBatchResult) o;
+        return Objects.equals(this.customerID, result.customerID) &&
+                this.status == result.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerID, status);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "customerID = " + customerID + ", " +
+                "status = " + status + ")";
+    }
+}
@@ -0,0 +1,81 @@
+package com.sparta.northwind.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+/**
+ * A customer written through the service, published once the write has committed and pushed to
+ * GET /customers/changes/stream subscribers. Creates and full updates carry the customer as written;
+ * partial updates and deletes carry only the ID.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final String customerID;
+    private final CustomerDto customer;
+
+    public CustomerChangeEvent(Type type, String customerID, CustomerDto customer) {
+        this.type = type;
+        this.customerID = customerID;
+        this.customer = customer;
+    }
+
+    public static CustomerChangeEvent created(CustomerDto customer) {
+        return new CustomerChangeEvent(Type.CREATED, customer.getCustomerID(), customer);
+    }
+
+    public static CustomerChangeEvent updated(CustomerDto customer) {
+        return new CustomerChangeEvent(Type.UPDATED, customer.getCustomerID(), customer);
+    }
+
+    public static CustomerChangeEvent patched(String customerID) {
+        return new CustomerChangeEvent(Type.UPDATED, customerID, null);
+    }
+
+    public static CustomerChangeEvent deleted(String customerID) {
+        return new CustomerChangeEvent(Type.DELETED, customerID, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getCustomerID() {
+        return customerID;
+    }
+
+    public CustomerDto getCustomer() {
+        return customer;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerChangeEvent event = (CustomerChangeEvent) o;
+        return this.type == event.type &&
+                Objects.equals(this.customerID, event.customerID) &&
+                Objects.equals(this.customer, event.customer);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, customerID, customer);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "type = " + type + ", " +
+                "customerID = " + customerID + ", " +
+                "customer = " + customer + ")";
+    }
+}
@@ -0,0 +1,47 @@
+package com.sparta.northwind.dtos;
+
+import java.util.Objects;
+
+/**
+ * How many customers have one value of a column, such as a country. A null value counts the customers
+ * with no value in that column.
+ */
+public class CustomerCount {
+
+    private final String value;
+    private final long customers;
+
+    public CustomerCount(String value, long customers) {
+        this.value = value;
+        this.customers = customers;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerCount count = (CustomerCount) o;
+        return Objects.equals(this.value, count.value) &&
+                this.customers == count.customers;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value, customers);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "value = " + value + ", " +
+                "customers = " + customers + ")";
+    }
+}
@@ -0,0 +1,62 @@
+package com.sparta.northwind.dtos;
+
+import java.util.Objects;
+
+/**
+ * Where a customer is, as counted by the customer stats: the columns they are grouped by and nothing else.
+ */
+public class CustomerLocation {
+
+    private final String customerID;
+    private final String country;
+    private final String city;
+    private final String region;
+
+    public CustomerLocation(String customerID, String country, String city, String region) {
+        this.customerID = customerID;
+        this.country = country;
+        this.city = city;
+        this.region = region;
+    }
+
+    public String getCustomerID() {
+        return customerID;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerLocation location = (CustomerLocation) o;
+        return Objects.equals(this.customerID, location.customerID) &&
+                Objects.equals(this.country, location.country) &&
+                Objects.equals(this.city, location.city) &&
+                Objects.equals(this.region, location.region);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerID, country, city, region);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "customerID = " + customerID + ", " +
+                "country = " + country + ", " +
+                "city = " + city + ", " +
+                "region = " + region + ")";
+    }
+}
@@ -0,0 +1,62 @@
+package com.sparta.northwind.dtos;
+
+import java.util.Objects;
+
+/**
+ * One row of the customers grouped by country, city and region: how many customers share that location.
+ */
+public class CustomerLocationCount {
+
+    private final String country;
+    private final String city;
+    private final String region;
+    private final long customers;
+
+    public CustomerLocationCount(String country, String city, String region, long customers) {
+        this.country = country;
+        this.city = city;
+        this.region = region;
+        this.customers = customers;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerLocationCount count = (CustomerLocationCount) o;
+        return Objects.equals(this.country, count.country) &&
+                Objects.equals(this.city, count.city) &&
+                Objects.equals(this.region, count.region) &&
+                this.customers == count.customers;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(country, city, region, customers);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "country = " + country + ", " +
+                "city = " + city + ", " +
+                "region = " + region + ", " +
+                "customers = " + customers + ")";
+    }
+}
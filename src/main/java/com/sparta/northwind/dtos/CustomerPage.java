@@ -0,0 +1,51 @@
+package com.sparta.northwind.dtos;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of customers returned by keyset pagination.
+ * The next cursor is the last CustomerID of the page, or null when there are no more pages.
+ */
+public class CustomerPage {
+    private final List<CustomerDto> customers;
+    private final String nextCursor;
+
+    public CustomerPage(List<CustomerDto> customers, String nextCursor) {
+        this.customers = customers;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CustomerDto> getCustomers() {
+        return customers;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerPage page = (CustomerPage) o;
+        return Objects.equals(this.customers, page.customers) &&
+                Objects.equals(this.nextCursor, page.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customers, nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "customers = " + customers.size() + ", " +
+                "nextCursor = " + nextCursor + ")";
+    }
+}
@@ -0,0 +1,134 @@
+package com.sparta.northwind.dtos;
+
+import jakarta.validation.constraints.Size;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Partial update for {@link com.sparta.northwind.entities.Customer}.
+ * Every field is optional: a null field means "leave this column unchanged", so columns that
+ * {@link CustomerDto} does not carry (address, phone, fax ...) can be changed without being overwritten.
+ */
+public class CustomerPatchDto implements Serializable {
+    @Size(min = 1, max = 40)
+    private final String companyName;
+    @Size(max = 30)
+    private final String contactName;
+    @Size(max = 30)
+    private final String contactTitle;
+    @Size(max = 60)
+    private final String address;
+    @Size(max = 15)
+    private final String city;
+    @Size(max = 15)
+    private final String region;
+    @Size(max = 10)
+    private final String postalCode;
+    @Size(max = 15)
+    private final String country;
+    @Size(max = 24)
+    private final String phone;
+    @Size(max = 24)
+    private final String fax;
+
+    public CustomerPatchDto(String companyName, String contactName, String contactTitle, String address, String city,
+                            String region, String postalCode, String country, String phone, String fax) {
+        this.companyName = companyName;
+        this.contactName = contactName;
+        this.contactTitle = contactTitle;
+        this.address = address;
+        this.city = city;
+        this.region = region;
+        this.postalCode = postalCode;
+        this.country = country;
+        this.phone = phone;
+        this.fax = fax;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public String getContactName() {
+        return contactName;
+    }
+
+    public String getContactTitle() {
+        return contactTitle;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getFax() {
+        return fax;
+    }
+
+    /**
+     * @return true if at least one column would be changed by this patch
+     */
+    public boolean hasChanges() {
+        return companyName != null || contactName != null || contactTitle != null || address != null
+                || city != null || region != null || postalCode != null || country != null
+                || phone != null || fax != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerPatchDto patch = (CustomerPatchDto) o;
+        return Objects.equals(this.companyName, patch.companyName) &&
+                Objects.equals(this.contactName, patch.contactName) &&
+                Objects.equals(this.contactTitle, patch.contactTitle) &&
+                Objects.equals(this.address, patch.address) &&
+                Objects.equals(this.city, patch.city) &&
+                Objects.equals(this.region, patch.region) &&
+                Objects.equals(this.postalCode, patch.postalCode) &&
+                Objects.equals(this.country, patch.country) &&
+                Objects.equals(this.phone, patch.phone) &&
+                Objects.equals(this.fax, patch.fax);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(companyName, contactName, contactTitle, address, city, region, postalCode, country, phone, fax);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "companyName = " + companyName + ", " +
+                "contactName = " + contactName + ", " +
+                "contactTitle = " + contactTitle + ", " +
+                "address = " + address + ", " +
+                "city = " + city + ", " +
+                "region = " + region + ", " +
+                "postalCode = " + postalCode + ", " +
+                "country = " + country + ", " +
+                "phone = " + phone + ", " +
+                "fax = " + fax + ")";
+    }
+}
@@ -0,0 +1,75 @@
+package com.sparta.northwind.dtos;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.Objects;
+
+/**
+ * Prefix filters for the customer search. Each non-null field restricts the results to customers whose
+ * column starts with the given value; all supplied filters must match.
+ */
+public class CustomerSearchCriteria {
+    @Size(min = 1, max = 40)
+    private final String companyName;
+    @Size(min = 1, max = 15)
+    private final String city;
+    @Size(min = 1, max = 15)
+    private final String region;
+    @Size(min = 1, max = 10)
+    private final String postalCode;
+
+    public CustomerSearchCriteria(String companyName, String city, String region, String postalCode) {
+        this.companyName = companyName;
+        this.city = city;
+        this.region = region;
+        this.postalCode = postalCode;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    /**
+     * @return true if at least one filter is set
+     */
+    public boolean hasFilters() {
+        return companyName != null || city != null || region != null || postalCode != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerSearchCriteria criteria = (CustomerSearchCriteria) o;
+        return Objects.equals(this.companyName, criteria.companyName) &&
+                Objects.equals(this.city, criteria.city) &&
+                Objects.equals(this.region, criteria.region) &&
+                Objects.equals(this.postalCode, criteria.postalCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(companyName, city, region, postalCode);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "companyName = " + companyName + ", " +
+                "city = " + city + ", " +
+                "region = " + region + ", " +
+                "postalCode = " + postalCode + ")";
+    }
+}
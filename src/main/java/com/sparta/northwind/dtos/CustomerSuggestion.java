@@ -0,0 +1,59 @@
+package com.sparta.northwind.dtos;
+
+import java.util.Objects;
+
+/**
+ * One type-ahead match: the customer and which of its names matched the typed prefix.
+ */
+public class CustomerSuggestion {
+
+    public enum Field {
+        COMPANY_NAME,
+        CONTACT_NAME
+    }
+
+    private final String customerID;
+    private final String text;
+    private final Field field;
+
+    public CustomerSuggestion(String customerID, String text, Field field) {
+        this.customerID = customerID;
+        this.text = text;
+        this.field = field;
+    }
+
+    public String getCustomerID() {
+        return customerID;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CustomerSuggestion suggestion = (CustomerSuggestion) o;
+        return Objects.equals(this.customerID, suggestion.customerID) &&
+                Objects.equals(this.text, suggestion.text) &&
+                this.field == suggestion.field;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(customerID, text, field);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" +
+                "customerID = " + customerID + ", " +
+                "text = " + text + ", " +
+                "field = " + field + ")";
+    }
+}
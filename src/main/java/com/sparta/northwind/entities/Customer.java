@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@Cacheable
 @Table(name = "customers", schema = "northwind", indexes = {
         @Index(name = "CompanyName", columnList = "CompanyName"),
         @Index(name = "City", columnList = "City"),
@@ -0,0 +1,220 @@
+package com.sparta.northwind.perf;
+
+import com.sparta.northwind.entities.Customer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates realistic, deterministic customers for performance testing.
+ * Customer {@code n} is always the same for a given seed, so data sets can be regenerated exactly
+ * and rows can be produced in parallel in any order.
+ * Cities follow a Zipf distribution, so a few cities (and therefore countries) hold most customers,
+ * as in production data, while the long tail keeps selective filters selective.
+ */
+public class CustomerDataGenerator {
+
+    /** Five base-36 characters, the width of the CustomerID column. */
+    public static final long MAX_CUSTOMERS = 36L * 36 * 36 * 36 * 36;
+
+    /** Exponent of the city distribution; the most common city gets roughly a fifth of all customers. */
+    static final double CITY_SKEW = 1.07;
+
+    private record City(String name, String region, String country, String postalPattern, String phonePrefix) {
+    }
+
+    // Ordered by popularity: rank 1 is the most common city
+    private static final City[] CITIES = {
+            new City("London", null, "UK", "AA9 9AA", "(171)"),
+            new City("São Paulo", "SP", "Brazil", "99999-999", "(11)"),
+            new City("México D.F.", null, "Mexico", "99999", "(5)"),
+            new City("Madrid", null, "Spain", "99999", "(91)"),
+            new City("Paris", null, "France", "99999", "(1)"),
+            new City("Berlin", null, "Germany", "99999", "030-"),
+            new City("Buenos Aires", null, "Argentina", "9999", "(1)"),
+            new City("Rio de Janeiro", "RJ", "Brazil", "99999-999", "(21)"),
+            new City("Seattle", "WA", "USA", "99999", "(206)"),
+            new City("Portland", "OR", "USA", "99999", "(503)"),
+            new City("Lisboa", null, "Portugal", "9999", "(1)"),
+            new City("München", null, "Germany", "99999", "089-"),
+            new City("Montréal", "Québec", "Canada", "A9A 9A9", "(514)"),
+            new City("Vancouver", "BC", "Canada", "A9A 9A9", "(604)"),
+            new City("Bruxelles", null, "Belgium", "9999", "(02)"),
+            new City("Caracas", "DF", "Venezuela", "9999", "(2)"),
+            new City("Stockholm", null, "Sweden", "999 99", "08-"),
+            new City("Helsinki", null, "Finland", "99999", "90-"),
+            new City("Bergamo", null, "Italy", "99999", "035-"),
+            new City("Torino", null, "Italy", "99999", "011-"),
+            new City("Lyon", null, "France", "99999", "78."),
+            new City("Marseille", null, "France", "99999", "91."),
+            new City("Frankfurt a.M.", null, "Germany", "99999", "069-"),
+            new City("Köln", null, "Germany", "99999", "0221-"),
+            new City("Genève", null, "Switzerland", "9999", "0897-"),
+            new City("Bern", null, "Switzerland", "9999", "0452-"),
+            new City("Salzburg", null, "Austria", "9999", "6562-"),
+            new City("Graz", null, "Austria", "9999", "7675-"),
+            new City("Cork", "Co. Cork", "Ireland", null, "2967 "),
+            new City("Århus", null, "Denmark", "9999", "86 "),
+            new City("København", null, "Denmark", "9999", "31 "),
+            new City("Warszawa", null, "Poland", "99-999", "(26)"),
+            new City("Albuquerque", "NM", "USA", "99999", "(505)"),
+            new City("Anchorage", "AK", "USA", "99999", "(907)"),
+            new City("Boise", "ID", "USA", "99999", "(208)"),
+            new City("Butte", "MT", "USA", "99999", "(406)"),
+            new City("Elgin", "OR", "USA", "99999", "(503)"),
+            new City("Eugene", "OR", "USA", "99999", "(503)"),
+            new City("Kirkland", "WA", "USA", "99999", "(206)"),
+            new City("Lander", "WY", "USA", "99999", "(307)"),
+            new City("Walla Walla", "WA", "USA", "99999", "(509)"),
+            new City("San Francisco", "CA", "USA", "99999", "(415)"),
+            new City("Tsawassen", "BC", "Canada", "A9A 9A9", "(604)"),
+            new City("Campinas", "SP", "Brazil", "99999-999", "(11)"),
+            new City("Resende", "SP", "Brazil", "99999-999", "(14)"),
+            new City("Barquisimeto", "Lara", "Venezuela", "9999", "(9)"),
+            new City("San Cristóbal", "Táchira", "Venezuela", "9999", "(5)"),
+            new City("Sevilla", null, "Spain", "99999", "(95)"),
+            new City("Barcelona", null, "Spain", "99999", "(93)"),
+            new City("Oulu", null, "Finland", "99999", "981-"),
+            new City("Luleå", null, "Sweden", "999 99", "0921-"),
+            new City("Charleroi", null, "Belgium", "9999", "(071)"),
+            new City("Brandenburg", null, "Germany", "99999", "0555-"),
+            new City("Cunewalde", null, "Germany", "99999", "0372-"),
+            new City("Leipzig", null, "Germany", "99999", "0342-"),
+            new City("Mannheim", null, "Germany", "99999", "0621-"),
+            new City("Münster", null, "Germany", "99999", "0251-"),
+            new City("Stavern", null, "Norway", "9999", "07-"),
+            new City("Reggio Emilia", null, "Italy", "99999", "0522-"),
+            new City("Nantes", null, "France", "99999", "40."),
+            new City("Lille", null, "France", "99999", "20."),
+            new City("Reims", null, "France", "99999", "26."),
+            new City("Strasbourg", null, "France", "99999", "88."),
+            new City("Toulouse", null, "France", "99999", "61."),
+            new City("Versailles", null, "France", "99999", "30."),
+            new City("Aachen", null, "Germany", "99999", "0241-"),
+            new City("Colchester", "Essex", "UK", "AA9 9AA", "(171)"),
+            new City("Cowes", "Isle of Wight", "UK", "AA99 9AA", "(198)"),
+    };
+
+    private static final String[] COMPANY_WORDS = {
+            "Alpine", "Blue", "Central", "Coastal", "Eastern", "Golden", "Grand", "Great", "Green", "Harbor",
+            "Island", "Lakeside", "Mountain", "North", "Old", "Pacific", "Prairie", "Royal", "Silver", "Southern",
+            "Sunny", "Valley", "Western", "White", "Wild"};
+    private static final String[] COMPANY_NOUNS = {
+            "Bakery", "Bistro", "Cellar", "Delicatessen", "Dairy", "Farms", "Foods", "Gourmet", "Grocers", "Imports",
+            "Kitchen", "Market", "Mercado", "Provisions", "Seafood", "Spices", "Supplies", "Trading", "Traders", "Wines"};
+    private static final String[] COMPANY_SUFFIXES = {"", "", " Ltd", " Inc.", " GmbH", " S.A.", " & Co.", " AB"};
+    private static final String[] FIRST_NAMES = {
+            "Maria", "Ana", "Antonio", "Thomas", "Christina", "Hanna", "Frédérique", "Martín", "Laurence", "Elizabeth",
+            "Victoria", "Patricio", "Francisco", "Yang", "Pedro", "Aria", "Diego", "Jean", "Carlos", "Yvonne",
+            "Philip", "Daniel", "Annette", "Renate", "Jaime", "Howard", "Yoshi", "Helen", "Peter", "Karin"};
+    private static final String[] LAST_NAMES = {
+            "Anders", "Trujillo", "Moreno", "Hardy", "Berglund", "Moos", "Citeaux", "Sommer", "Lebihan", "Lincoln",
+            "Ashworth", "Simpson", "Chang", "Afonso", "Cruz", "Roel", "Fonseca", "Devon", "González", "Moncada",
+            "Cramer", "Tonini", "Roulet", "Messner", "Yorres", "Kloss", "Tannamuri", "Bennett", "Franken", "Josephs"};
+    private static final String[] TITLES = {
+            "Sales Representative", "Owner", "Order Administrator", "Marketing Manager", "Accounting Manager",
+            "Sales Manager", "Sales Agent", "Sales Associate", "Marketing Assistant", "Assistant Sales Agent"};
+    private static final String[] STREETS = {
+            "Obere Str.", "Avda. de la Constitución", "Mataderos", "Hanover Sq.", "Berguvsvägen", "Forsterstr.",
+            "place Kléber", "C/ Araquil", "rue des Bouchers", "Tsawassen Blvd.", "Fauntleroy Circus", "Cerrito",
+            "Sierras de Granada", "Hauptstr.", "Av. dos Lusíadas", "Berkeley Gardens", "Walserweg", "Rua Orós"};
+
+    private final long seed;
+    private final double[] cityCumulativeWeights;
+
+    public CustomerDataGenerator(long seed) {
+        this.seed = seed;
+        this.cityCumulativeWeights = new double[CITIES.length];
+        double total = 0;
+        for (int rank = 1; rank <= CITIES.length; rank++) {
+            total += 1 / Math.pow(rank, CITY_SKEW);
+            cityCumulativeWeights[rank - 1] = total;
+        }
+        for (int i = 0; i < cityCumulativeWeights.length; i++) {
+            cityCumulativeWeights[i] /= total;
+        }
+    }
+
+    /**
+     * Returns customer number {@code index}; the same index always yields the same customer.
+     */
+    public Customer customer(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        City city = CITIES[cityIndex(random.nextDouble())];
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+
+        Customer customer = new Customer();
+        customer.setCustomerID(customerId(index));
+        customer.setCompanyName(pick(random, COMPANY_WORDS) + " " + pick(random, COMPANY_NOUNS)
+                + pick(random, COMPANY_SUFFIXES) + " " + index);
+        customer.setContactName(firstName + " " + lastName);
+        customer.setContactTitle(pick(random, TITLES));
+        customer.setAddress(pick(random, STREETS) + " " + (1 + random.nextInt(999)));
+        customer.setCity(city.name());
+        customer.setRegion(city.region());
+        customer.setPostalCode(city.postalPattern() == null ? null : postalCode(random, city.postalPattern()));
+        customer.setCountry(city.country());
+        customer.setPhone(city.phonePrefix() + " " + digits(random, 3) + "-" + digits(random, 4));
+        customer.setFax(random.nextInt(3) == 0 ? city.phonePrefix() + " " + digits(random, 3) + "-" + digits(random, 4) : null);
+        return customer;
+    }
+
+    /**
+     * Five-character, zero-padded base-36 ID in upper case, e.g. 00A1Z.
+     */
+    public static String customerId(long index) {
+        if (index < 0 || index >= MAX_CUSTOMERS) {
+            throw new IllegalArgumentException("Customer index out of range: " + index);
+        }
+        char[] id = new char[5];
+        long remaining = index;
+        for (int i = id.length - 1; i >= 0; i--) {
+            id[i] = Character.toUpperCase(Character.forDigit((int) (remaining % 36), 36));
+            remaining /= 36;
+        }
+        return new String(id);
+    }
+
+    private int cityIndex(double uniform) {
+        int low = 0;
+        int high = cityCumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cityCumulativeWeights[mid] < uniform) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String digits(SplittableRandom random, int count) {
+        StringBuilder digits = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Fills a pattern where 9 is a digit and A an upper-case letter.
+     */
+    private static String postalCode(SplittableRandom random, String pattern) {
+        StringBuilder postalCode = new StringBuilder(pattern.length());
+        for (char c : pattern.toCharArray()) {
+            if (c == '9') {
+                postalCode.append((char) ('0' + random.nextInt(10)));
+            } else if (c == 'A') {
+                postalCode.append((char) ('A' + random.nextInt(26)));
+            } else {
+                postalCode.append(c);
+            }
+        }
+        return postalCode.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package com.sparta.northwind.perf;
+
+import com.sparta.northwind.entities.Customer;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills an empty customers table with {@code northwind.perf.customers} generated customers when the perf
+ * profile is active. Runs before the application reports ready, so nothing is served from a half-filled table.
+ * A table that already holds customers is left alone; delete the database files to reseed.
+ * <p>
+ * Loading is tuned for millions of rows:
+ * <ul>
+ *     <li>the secondary indexes of {@link Customer} are dropped first and rebuilt once at the end, which is
+ *     several times faster than maintaining them row by row;</li>
+ *     <li>rows go in as multi-row INSERT statements sent in JDBC batches, bypassing Hibernate;</li>
+ *     <li>batches are spread over several threads, each on its own connection and committing per batch,
+ *     so there is no single huge transaction.</li>
+ * </ul>
+ */
+@Component
+@Profile("perf")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PerfDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+
+    static final int ROWS_PER_STATEMENT = 100;
+
+    private static final Table CUSTOMER_TABLE = Customer.class.getAnnotation(Table.class);
+    private static final String TABLE_NAME = CUSTOMER_TABLE.schema() + "." + CUSTOMER_TABLE.name();
+    private static final String INSERT_PREFIX = "insert into " + TABLE_NAME + " (CustomerID, CompanyName, ContactName,"
+            + " ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax) values ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long customerCount;
+    private final int batchSize;
+    private final int threads;
+    private final CustomerDataGenerator generator;
+
+    public PerfDataSeeder(JdbcTemplate jdbcTemplate,
+                          @Value("${northwind.perf.customers:1000000}") long customerCount,
+                          @Value("${northwind.perf.batch-size:5000}") int batchSize,
+                          @Value("${northwind.perf.threads:0}") int threads,
+                          @Value("${northwind.perf.seed:42}") long seed) {
+        if (customerCount < 0 || customerCount > CustomerDataGenerator.MAX_CUSTOMERS) {
+            throw new IllegalArgumentException("northwind.perf.customers must be between 0 and " + CustomerDataGenerator.MAX_CUSTOMERS);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("northwind.perf.batch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.customerCount = customerCount;
+        this.batchSize = batchSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.generator = new CustomerDataGenerator(seed);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject("select count(*) from " + TABLE_NAME, Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Customers table already holds {} rows, skipping perf data seeding", existing);
+            return;
+        }
+        seed();
+    }
+
+    /**
+     * Inserts customers 0 to {@code customerCount - 1} with the secondary indexes dropped,
+     * then rebuilds the indexes even if loading failed.
+     *
+     * @return the number of rows inserted
+     */
+    long seed() throws Exception {
+        long started = System.nanoTime();
+        for (Index index : CUSTOMER_TABLE.indexes()) {
+            jdbcTemplate.execute("alter table " + TABLE_NAME + " drop index " + index.name());
+        }
+        long inserted;
+        try {
+            inserted = insertAll();
+        } finally {
+            long indexingStarted = System.nanoTime();
+            for (Index index : CUSTOMER_TABLE.indexes()) {
+                jdbcTemplate.execute("create index " + index.name() + " on " + TABLE_NAME + " (" + index.columnList() + ")");
+            }
+            log.info("Rebuilt customer indexes in {} ms", (System.nanoTime() - indexingStarted) / 1_000_000);
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Seeded {} customers in {} ms ({} rows/s) on {} threads", inserted, millis, inserted * 1000 / millis, threads);
+        return inserted;
+    }
+
+    private long insertAll() throws Exception {
+        AtomicLong inserted = new AtomicLong();
+        List<Future<?>> batches = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (long from = 0; from < customerCount; from += batchSize) {
+                long batchStart = from;
+                int rows = (int) Math.min(batchSize, customerCount - from);
+                batches.add(executor.submit(() -> {
+                    insertBatch(batchStart, rows);
+                    long total = inserted.addAndGet(rows);
+                    if (total / 1_000_000 != (total - rows) / 1_000_000) {
+                        log.info("Seeded {} of {} customers", total, customerCount);
+                    }
+                }));
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return inserted.get();
+    }
+
+    /**
+     * Inserts rows {@code from} to {@code from + rows - 1} on one connection: full statements of
+     * {@link #ROWS_PER_STATEMENT} rows as one JDBC batch, then a shorter statement for the remainder.
+     */
+    private void insertBatch(long from, int rows) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            int fullStatements = rows / ROWS_PER_STATEMENT;
+            if (fullStatements > 0) {
+                try (PreparedStatement ps = connection.prepareStatement(insertSql(ROWS_PER_STATEMENT))) {
+                    for (int i = 0; i < fullStatements; i++) {
+                        bindRows(ps, from + (long) i * ROWS_PER_STATEMENT, ROWS_PER_STATEMENT);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+            int remainder = rows % ROWS_PER_STATEMENT;
+            if (remainder > 0) {
+                try (PreparedStatement ps = connection.prepareStatement(insertSql(remainder))) {
+                    bindRows(ps, from + (long) fullStatements * ROWS_PER_STATEMENT, remainder);
+                    ps.executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+
+    static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX).append(ROW_PLACEHOLDERS);
+        for (int i = 1; i < rows; i++) {
+            sql.append(", ").append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private void bindRows(PreparedStatement ps, long from, int rows) throws SQLException {
+        int parameter = 1;
+        for (int i = 0; i < rows; i++) {
+            Customer customer = generator.customer(from + i);
+            ps.setString(parameter++, customer.getCustomerID());
+            ps.setString(parameter++, customer.getCompanyName());
+            ps.setString(parameter++, customer.getContactName());
+            ps.setString(parameter++, customer.getContactTitle());
+            ps.setString(parameter++, customer.getAddress());
+            ps.setString(parameter++, customer.getCity());
+            ps.setString(parameter++, customer.getRegion());
+            ps.setString(parameter++, customer.getPostalCode());
+            ps.setString(parameter++, customer.getCountry());
+            ps.setString(parameter++, customer.getPhone());
+            ps.setString(parameter++, customer.getFax());
+        }
+    }
+}
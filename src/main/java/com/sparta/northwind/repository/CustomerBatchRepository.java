@@ -0,0 +1,26 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.entities.Customer;
+
+import java.util.List;
+
+/**
+ * Bulk write operations that Spring Data's save methods cannot express efficiently.
+ */
+public interface CustomerBatchRepository {
+
+    /**
+     * Inserts new customers with plain persist calls so Hibernate can group them into JDBC batches.
+     * Unlike {@code saveAll}, no SELECT is issued per customer to decide between insert and merge.
+     * Must be called inside a transaction; the persistence context is flushed and cleared afterwards.
+     */
+    void persistAll(List<Customer> customers);
+
+    /**
+     * Writes each customer as {@code save} would, inserting it or overwriting every column of the existing row,
+     * with multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements instead of a SELECT and a statement per
+     * customer. Hibernate is told the statements touch customers, so it drops the cached customers and queries
+     * once the transaction completes. Must be called inside a transaction.
+     */
+    void upsertAll(List<Customer> customers);
+}
@@ -0,0 +1,67 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.entities.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.hibernate.query.NativeQuery;
+
+import java.util.List;
+
+public class CustomerBatchRepositoryImpl implements CustomerBatchRepository {
+
+    static final int ROWS_PER_UPSERT = 100;
+
+    private static final Table CUSTOMER_TABLE = Customer.class.getAnnotation(Table.class);
+    private static final String UPSERT_PREFIX = "insert into " + CUSTOMER_TABLE.schema() + "." + CUSTOMER_TABLE.name()
+            + " (CustomerID, CompanyName, ContactName, ContactTitle, Address, City, Region, PostalCode, Country, Phone, Fax) values ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_SUFFIX = " on duplicate key update CompanyName = values(CompanyName),"
+            + " ContactName = values(ContactName), ContactTitle = values(ContactTitle), Address = values(Address),"
+            + " City = values(City), Region = values(Region), PostalCode = values(PostalCode),"
+            + " Country = values(Country), Phone = values(Phone), Fax = values(Fax)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persistAll(List<Customer> customers) {
+        for (Customer customer : customers) {
+            entityManager.persist(customer);
+        }
+        // Send the queued inserts as JDBC batches and release the entities
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public void upsertAll(List<Customer> customers) {
+        for (int from = 0; from < customers.size(); from += ROWS_PER_UPSERT) {
+            List<Customer> rows = customers.subList(from, Math.min(from + ROWS_PER_UPSERT, customers.size()));
+            StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+            for (int row = 0; row < rows.size(); row++) {
+                sql.append(row == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+            }
+            sql.append(UPSERT_SUFFIX);
+
+            NativeQuery<?> upsert = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+            // Lets Hibernate invalidate the Customer region and cached queries as it does for JPQL updates
+            upsert.addSynchronizedEntityClass(Customer.class);
+            int position = 1;
+            for (Customer customer : rows) {
+                upsert.setParameter(position++, customer.getCustomerID());
+                upsert.setParameter(position++, customer.getCompanyName());
+                upsert.setParameter(position++, customer.getContactName());
+                upsert.setParameter(position++, customer.getContactTitle());
+                upsert.setParameter(position++, customer.getAddress());
+                upsert.setParameter(position++, customer.getCity());
+                upsert.setParameter(position++, customer.getRegion());
+                upsert.setParameter(position++, customer.getPostalCode());
+                upsert.setParameter(position++, customer.getCountry());
+                upsert.setParameter(position++, customer.getPhone());
+                upsert.setParameter(position++, customer.getFax());
+            }
+            upsert.executeUpdate();
+        }
+    }
+}
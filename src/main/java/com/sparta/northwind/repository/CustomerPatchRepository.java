@@ -0,0 +1,18 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.dtos.CustomerPatchDto;
+
+/**
+ * Partial updates that touch only the columns a client actually sent.
+ */
+public interface CustomerPatchRepository {
+
+    /**
+     * Applies the non-null fields of the patch with a single UPDATE statement whose SET clause
+     * lists only those columns. The row is not read first, and other columns keep their values.
+     * Must be called inside a transaction.
+     *
+     * @return the number of rows updated, 0 if the customer does not exist
+     */
+    int patchById(String id, CustomerPatchDto patch);
+}
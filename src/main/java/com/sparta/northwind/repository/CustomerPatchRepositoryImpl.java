@@ -0,0 +1,47 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.entities.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+public class CustomerPatchRepositoryImpl implements CustomerPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patchById(String id, CustomerPatchDto patch) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Customer> update = criteriaBuilder.createCriteriaUpdate(Customer.class);
+        Root<Customer> customer = update.from(Customer.class);
+
+        boolean changed = set(update, "companyName", patch.getCompanyName());
+        changed |= set(update, "contactName", patch.getContactName());
+        changed |= set(update, "contactTitle", patch.getContactTitle());
+        changed |= set(update, "address", patch.getAddress());
+        changed |= set(update, "city", patch.getCity());
+        changed |= set(update, "region", patch.getRegion());
+        changed |= set(update, "postalCode", patch.getPostalCode());
+        changed |= set(update, "country", patch.getCountry());
+        changed |= set(update, "phone", patch.getPhone());
+        changed |= set(update, "fax", patch.getFax());
+        if (!changed) {
+            throw new IllegalArgumentException("Patch must change at least one field");
+        }
+
+        update.where(criteriaBuilder.equal(customer.get("customerID"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static boolean set(CriteriaUpdate<Customer> update, String attribute, String value) {
+        if (value == null) {
+            return false;
+        }
+        update.set(attribute, value);
+        return true;
+    }
+}
@@ -1,9 +1,153 @@
 package com.sparta.northwind.repository;
 
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerLocation;
+import com.sparta.northwind.dtos.CustomerLocationCount;
 import com.sparta.northwind.entities.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RepositoryRestResource(exported = false)
-public interface CustomerRepository  extends JpaRepository<Customer, String> {
+public interface CustomerRepository  extends JpaRepository<Customer, String>, JpaSpecificationExecutor<Customer>,
+        CustomerBatchRepository, CustomerPatchRepository {
+
+    /**
+     * Rows fetched per round trip when streaming. MySQL only honours it with useCursorFetch=true on the
+     * connection URL, otherwise Connector/J buffers the whole result set in memory.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Keeps the results in Hibernate's query cache. Any write to the customers table through Hibernate
+     * invalidates them, including bulk deletes and updates.
+     */
+    String CACHEABLE = "true";
+
+    /**
+     * Query cache region for single-customer lookups, sized apart from the collection pages so that lookups of
+     * many different customers do not push the pages out.
+     */
+    String LOOKUP_CACHE_REGION = "customer-lookups";
+
+    /**
+     * Selects only the columns exposed by {@link CustomerDto} straight into the DTO constructor.
+     * The results are plain objects, so nothing is added to the persistence context or dirty-checked.
+     */
+    String SELECT_DTO = "select new com.sparta.northwind.dtos.CustomerDto("
+            + "c.customerID, c.companyName, c.contactName, c.city) from Customer c";
+
+    /**
+     * Read-only on its own, so with a read replica it is served there even when the caller has no transaction.
+     * A projection never reads the second-level entity cache, so the result is kept in the query cache instead:
+     * repeated lookups of a customer issue no SQL until a customer is written.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = CACHEABLE),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = LOOKUP_CACHE_REGION)})
+    @Query(SELECT_DTO + " where c.customerID = :id")
+    Optional<CustomerDto> findDtoById(@Param("id") String id);
+
+    /**
+     * Every customer, ordered by ID. Not kept in the query cache, unlike the pages: the result is the whole
+     * table, which would fill the query cache region and be thrown away by the next write to any customer.
+     */
+    @Query(SELECT_DTO + " order by c.customerID")
+    List<CustomerDto> findAllDtos();
+
+    /**
+     * Loads the given customers in a single IN query, read-only like {@link #findDtoById}.
+     * IDs with no customer are left out.
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + " where c.customerID in :ids")
+    List<CustomerDto> findDtosByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * The country, city and region of the given customers in a single IN query, read before they are changed
+     * so the customer stats can take them off their old counts.
+     */
+    @Query("select new com.sparta.northwind.dtos.CustomerLocation(c.customerID, c.country, c.city, c.region) "
+            + "from Customer c where c.customerID in :ids")
+    List<CustomerLocation> findLocationsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Counts the customers at each country, city and region in one GROUP BY over the whole table.
+     * Read-only, so callers that must count writes not yet on the replica pin themselves to the primary.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.sparta.northwind.dtos.CustomerLocationCount(c.country, c.city, c.region, count(c)) "
+            + "from Customer c group by c.country, c.city, c.region")
+    List<CustomerLocationCount> countByLocation();
+
+    /**
+     * The first customer IDs in ID order, read from the primary key index alone.
+     */
+    @Query("select c.customerID from Customer c order by c.customerID")
+    List<String> findIds(Limit limit);
+
+    /**
+     * Returns which of the given IDs already exist, in a single IN query.
+     */
+    @Query("select c.customerID from Customer c where c.customerID in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Deletes a customer with a single DELETE statement. Unlike {@code deleteById}, the entity is not loaded
+     * first and a missing customer is reported as 0. Callers that keep derived state, such as
+     * {@code CustomerService} with the customer stats, read what they need with {@link #findLocationsByIdIn}
+     * in the same transaction, which makes a delete two statements.
+     *
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from Customer c where c.customerID = :id")
+    int deleteRowById(@Param("id") String id);
+
+    /**
+     * Deletes all the given customers with a single DELETE ... IN statement, read beforehand by callers in the
+     * same way as {@link #deleteRowById}.
+     *
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("delete from Customer c where c.customerID in :ids")
+    int deleteRowsByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * First page of the keyset (seek) pagination, ordered by primary key.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = CACHEABLE))
+    @Query(SELECT_DTO + " order by c.customerID")
+    List<CustomerDto> findDtoPage(Limit limit);
+
+    /**
+     * Next page of the keyset pagination: seeks past the cursor using the primary key index,
+     * so the cost of a page does not grow with how deep the client has paged.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = CACHEABLE))
+    @Query(SELECT_DTO + " where c.customerID > :after order by c.customerID")
+    List<CustomerDto> findDtoPageAfter(@Param("after") String after, Limit limit);
+
+    /**
+     * Streams every customer ordered by ID without materialising the result list.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + " order by c.customerID")
+    Stream<CustomerDto> streamAllDtos();
 }
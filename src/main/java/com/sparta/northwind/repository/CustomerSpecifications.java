@@ -0,0 +1,77 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.dtos.CustomerSearchCriteria;
+import com.sparta.northwind.entities.Customer;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search predicates for {@link Customer} that the CompanyName, City, Region and PostalCode indexes can serve.
+ * Every filter is a plain {@code column LIKE 'prefix%'}: no leading wildcard and no function applied to
+ * the column, so MySQL can range-scan the index. Case-insensitivity comes from the column collation.
+ */
+public final class CustomerSpecifications {
+
+    static final char LIKE_ESCAPE = '\\';
+
+    private CustomerSpecifications() {
+    }
+
+    public static Specification<Customer> companyNameStartsWith(String prefix) {
+        return startsWith("companyName", prefix);
+    }
+
+    public static Specification<Customer> cityStartsWith(String prefix) {
+        return startsWith("city", prefix);
+    }
+
+    public static Specification<Customer> regionStartsWith(String prefix) {
+        return startsWith("region", prefix);
+    }
+
+    public static Specification<Customer> postalCodeStartsWith(String prefix) {
+        return startsWith("postalCode", prefix);
+    }
+
+    /**
+     * Combines the filters that are set in the criteria with AND.
+     */
+    public static Specification<Customer> matching(CustomerSearchCriteria criteria) {
+        List<Specification<Customer>> filters = new ArrayList<>(4);
+        if (criteria.getCompanyName() != null) {
+            filters.add(companyNameStartsWith(criteria.getCompanyName()));
+        }
+        if (criteria.getCity() != null) {
+            filters.add(cityStartsWith(criteria.getCity()));
+        }
+        if (criteria.getRegion() != null) {
+            filters.add(regionStartsWith(criteria.getRegion()));
+        }
+        if (criteria.getPostalCode() != null) {
+            filters.add(postalCodeStartsWith(criteria.getPostalCode()));
+        }
+        return Specification.allOf(filters);
+    }
+
+    private static Specification<Customer> startsWith(String attribute, String prefix) {
+        String pattern = escapeLike(prefix) + "%";
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get(attribute), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * Escapes LIKE wildcards in user input so they match literally.
+     */
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.sparta.northwind.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hit ratios of Hibernate's second-level and query caches since startup. The hit and miss counts behind them
+ * are published per region by Hibernate's own metrics ({@code hibernate.second.level.cache.requests} and
+ * {@code hibernate.cache.query.requests}); the ratios save dashboards reading /actuator/metrics from working
+ * them out. NaN until the cache has been asked, and while statistics are disabled.
+ */
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ratio(registry, "hibernate.second.level.cache.hit.ratio", "Share of second-level cache lookups that were hits",
+                stats -> hitRatio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()));
+        ratio(registry, "hibernate.cache.query.hit.ratio", "Share of query cache lookups that were hits",
+                stats -> hitRatio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()));
+    }
+
+    private void ratio(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> value) {
+        Gauge.builder(name, statistics, value)
+                .description(description)
+                .register(registry);
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
@@ -0,0 +1,292 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.CacheConfig;
+import com.sparta.northwind.dtos.CustomerChangeEvent;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the customers cache in the background after startup, so the first GET /customers/{id} requests after a
+ * deploy are hits instead of a stampede on the database.
+ * <p>
+ * The customers to load are the hottest entries of the cache at the last shutdown, saved to
+ * {@code northwind.warmup.hot-keys-file}, or when there is no such file the first
+ * {@code northwind.warmup.max-customers} customers by ID. They are loaded in chunks of {@code chunk-size} IDs,
+ * one IN query each, on {@code threads} threads.
+ * <p>
+ * As a health indicator in the readiness group it reports OUT_OF_SERVICE, which fails the readiness probe, until
+ * {@code ready-percent} of those customers are loaded; chunks whose query failed do not count. It reports UP once
+ * warm-up has ended in any other way (finished, failed or run past {@code timeout}), so a broken warm-up slows a
+ * rollout but cannot stall it, with the failed chunks in the details.
+ * <p>
+ * Customers changed or deleted through {@link CustomerService} while warm-up runs are not loaded, as the row a chunk
+ * read may predate the change and the eviction that went with it.
+ */
+@Component
+public class CustomerCacheWarmer implements HealthIndicator, MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerCacheWarmer.class);
+
+    private final CustomerRepository customerRepository;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final Path hotKeysFile;
+    private final int maxCustomers;
+    private final int chunkSize;
+    private final int threads;
+    private final int readyPercent;
+    private final Duration timeout;
+
+    private final AtomicInteger target = new AtomicInteger();
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    /** IDs changed since warm-up started, compared the way the database compares them. */
+    private final Set<String> changed = new ConcurrentSkipListSet<>(String.CASE_INSENSITIVE_ORDER);
+    private volatile boolean warming;
+    private volatile long startedNanos;
+    private volatile long durationNanos = -1;
+    private volatile boolean ready;
+
+    public CustomerCacheWarmer(CustomerRepository customerRepository, CacheManager cacheManager,
+                               @Value("${northwind.warmup.enabled:true}") boolean enabled,
+                               @Value("${northwind.warmup.hot-keys-file:}") String hotKeysFile,
+                               @Value("${northwind.warmup.max-customers:10000}") int maxCustomers,
+                               @Value("${northwind.warmup.chunk-size:500}") int chunkSize,
+                               @Value("${northwind.warmup.threads:4}") int threads,
+                               @Value("${northwind.warmup.ready-percent:90}") int readyPercent,
+                               @Value("${northwind.warmup.timeout:5m}") Duration timeout) {
+        if (readyPercent < 0 || readyPercent > 100) {
+            throw new IllegalArgumentException("northwind.warmup.ready-percent must be between 0 and 100");
+        }
+        this.customerRepository = customerRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.hotKeysFile = hotKeysFile.isBlank() ? null : Path.of(hotKeysFile);
+        this.maxCustomers = maxCustomers;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.readyPercent = readyPercent;
+        this.timeout = timeout;
+        this.ready = !enabled;
+    }
+
+    /**
+     * Starts warm-up on a background thread once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            Thread.ofPlatform().name("customer-cache-warmup").daemon().start(this::warmUp);
+        }
+    }
+
+    void warmUp() {
+        startedNanos = System.nanoTime();
+        warming = true;
+        try {
+            Cache cache = cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE);
+            if (cache == null || cache instanceof NoOpCache) {
+                log.info("No {} cache configured, skipping warm-up", CacheConfig.CUSTOMERS_CACHE);
+                return;
+            }
+            List<String> ids = customersToLoad();
+            target.set(ids.size());
+            if (!loadAll(cache, ids)) {
+                log.warn("Customer cache warm-up stopped after {}: {} of {} customers loaded", timeout, loaded.get(), ids.size());
+            }
+        } catch (RuntimeException | IOException e) {
+            log.warn("Customer cache warm-up failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            warming = false;
+            changed.clear();
+            durationNanos = System.nanoTime() - startedNanos;
+            ready = true;
+            log.info("Customer cache warm-up loaded {} of {} customers in {} ms",
+                    loaded.get(), target.get(), durationNanos / 1_000_000);
+        }
+    }
+
+    private List<String> customersToLoad() throws IOException {
+        if (hotKeysFile != null && Files.isReadable(hotKeysFile)) {
+            try (var lines = Files.lines(hotKeysFile)) {
+                return lines.map(String::strip).filter(id -> !id.isEmpty()).limit(maxCustomers).toList();
+            }
+        }
+        return customerRepository.findIds(Limit.of(maxCustomers));
+    }
+
+    /**
+     * @return false if loading was cut short by the timeout
+     */
+    private boolean loadAll(Cache cache, List<String> ids) throws InterruptedException {
+        updateReady();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<String> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                executor.execute(() -> loadChunk(cache, chunk));
+            }
+            executor.shutdown();
+            return executor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Records a customer written or deleted through the service, which is published before its transaction commits
+     * and so before the cache entry is evicted. Loading it afterwards could put back the row as it was.
+     */
+    @EventListener
+    public void onCustomerChange(CustomerChangeEvent event) {
+        if (warming) {
+            changed.add(event.getCustomerID().stripTrailing());
+        }
+    }
+
+    /**
+     * Adds the customers without replacing entries written through the service meanwhile, which are newer, and skips
+     * those changed since warm-up started. A customer changed between the check and the put is evicted again, as its
+     * own eviction may already have run. IDs that no longer exist count as loaded, so deleted customers in the
+     * hot-key list cannot hold back readiness; a chunk whose query failed does not.
+     */
+    private void loadChunk(Cache cache, List<String> ids) {
+        try {
+            for (CustomerDto customer : customerRepository.findDtosByIdIn(ids)) {
+                String id = customer.getCustomerID();
+                if (changed.contains(id.stripTrailing())) {
+                    continue;
+                }
+                cache.putIfAbsent(id, customer);
+                if (changed.contains(id.stripTrailing())) {
+                    cache.evict(id);
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Could not warm {} customers starting at {}", ids.size(), ids.get(0), e);
+            return;
+        }
+        loaded.addAndGet(ids.size());
+        updateReady();
+    }
+
+    private void updateReady() {
+        if (loaded.get() * 100L >= (long) target.get() * readyPercent) {
+            ready = true;
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = ready ? Health.up() : Health.outOfService();
+        return health.withDetail("loaded", loaded.get())
+                .withDetail("target", target.get())
+                .withDetail("readyPercent", readyPercent)
+                .withDetail("failedChunks", failures.get())
+                .build();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Saves the hottest customers in the cache, by how often they were read, for the next start to load.
+     */
+    @Override
+    public void destroy() {
+        if (hotKeysFile == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE);
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine)) {
+            return;
+        }
+        List<String> hottest = hottestKeys(caffeine);
+        try {
+            Path parent = hotKeysFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path written = Files.write(Files.createTempFile(parent, "hot-customers", ".tmp"), hottest);
+            Files.move(written, hotKeysFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved {} hot customer IDs to {}", hottest.size(), hotKeysFile);
+        } catch (IOException e) {
+            log.warn("Could not save hot customer IDs to {}", hotKeysFile, e);
+        }
+    }
+
+    private <K> List<String> hottestKeys(com.github.benmanes.caffeine.cache.Cache<K, ?> caffeine) {
+        return caffeine.policy().eviction()
+                .map(eviction -> eviction.hottest(maxCustomers).keySet())
+                .orElseGet(() -> caffeine.asMap().keySet())
+                .stream().limit(maxCustomers).map(Object::toString).toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customers.warmup.target", target, AtomicInteger::get)
+                .description("Customers the cache warm-up is loading")
+                .register(registry);
+        Gauge.builder("customers.warmup.loaded", loaded, AtomicInteger::get)
+                .description("Customers the cache warm-up has loaded so far")
+                .register(registry);
+        Gauge.builder("customers.warmup.progress", this, CustomerCacheWarmer::progress)
+                .description("Fraction of the cache warm-up done, from 0 to 1")
+                .register(registry);
+        TimeGauge.builder("customers.warmup.duration", this, TimeUnit.NANOSECONDS, CustomerCacheWarmer::elapsedNanos)
+                .description("Time the cache warm-up has been running, or took once finished")
+                .register(registry);
+        FunctionCounter.builder("customers.warmup.failures", failures, AtomicLong::get)
+                .description("Chunks of customers the cache warm-up could not load")
+                .register(registry);
+    }
+
+    private double progress() {
+        int total = target.get();
+        if (total == 0) {
+            return durationNanos >= 0 ? 1 : 0;
+        }
+        return (double) loaded.get() / total;
+    }
+
+    private double elapsedNanos() {
+        if (durationNanos >= 0) {
+            return durationNanos;
+        }
+        return startedNanos == 0 ? 0 : System.nanoTime() - startedNanos;
+    }
+}
@@ -0,0 +1,294 @@
+package com.sparta.northwind.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.northwind.dtos.CustomerChangeEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed customer changes to Server-Sent Events subscribers of GET /customers/changes/stream.
+ * <p>
+ * Each change is serialized once and offered to every subscriber's own bounded buffer, so publishing never waits
+ * on a socket. Buffers are drained by one virtual thread per busy subscriber. A subscriber that falls
+ * {@code northwind.changes.buffer-size} events behind loses its buffer and is sent a {@value #RESYNC_EVENT} event
+ * instead, telling it to reload the collection before applying the events that follow; the other subscribers
+ * are unaffected.
+ * <p>
+ * Event IDs are {@code <instance>-<sequence>}. The last {@code northwind.changes.replay-size} events are kept, so
+ * a client reconnecting with Last-Event-ID, as browsers do, receives what it missed; one that missed more, or was
+ * connected to another instance, is sent {@value #RESYNC_EVENT}.
+ */
+@Component
+public class CustomerChangeFeed implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerChangeFeed.class);
+
+    public static final String RESYNC_EVENT = "resync";
+
+    /** A change as sent: its sequence number, the SSE event name and the JSON data, rendered once for everyone. */
+    private record Change(long sequence, String name, String data) {
+    }
+
+    private static final Change HEARTBEAT = new Change(-1, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    /** Guards the sequence, the replay buffer and the subscriber set, so every subscriber sees changes in order. */
+    private final Object lock = new Object();
+    private long sequence;
+    private final Deque<Change> recent = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-change-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    public CustomerChangeFeed(ObjectMapper objectMapper,
+                              @Value("${northwind.changes.buffer-size:256}") int bufferSize,
+                              @Value("${northwind.changes.replay-size:1000}") int replaySize,
+                              @Value("${northwind.changes.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${northwind.changes.timeout:30m}") Duration timeout,
+                              @Value("${northwind.changes.heartbeat:20s}") Duration heartbeat) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        // Comments on idle streams keep proxies from closing them and find subscribers that have gone away
+        long heartbeatMillis = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream for a new subscriber.
+     *
+     * @param lastEventId the Last-Event-ID a reconnecting client sent, or null
+     * @return the emitter, or null if the feed already has {@code max-subscribers} subscribers
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        return register(emitter, lastEventId) ? emitter : null;
+    }
+
+    boolean register(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (lock) {
+            if (subscribers.size() >= maxSubscribers) {
+                return false;
+            }
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayAfter(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return true;
+    }
+
+    private void replayAfter(Subscriber subscriber, String lastEventId) {
+        long after = sequenceOf(lastEventId);
+        long oldest = recent.isEmpty() ? sequence + 1 : recent.peekFirst().sequence();
+        if (after < 0 || after > sequence || after < oldest - 1) {
+            subscriber.resync();
+            return;
+        }
+        for (Change change : recent) {
+            if (change.sequence() > after) {
+                subscriber.enqueue(change);
+            }
+        }
+    }
+
+    private long sequenceOf(String eventId) {
+        String prefix = instanceId + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Fans a change out to every subscriber once its transaction has committed, or straight away when it was
+     * published outside a transaction. A rolled-back change is never sent.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(CustomerChangeEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {}", event, e);
+            return;
+        }
+        String name = event.getType().name().toLowerCase(Locale.ROOT);
+        synchronized (lock) {
+            Change change = new Change(++sequence, name, data);
+            recent.addLast(change);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(change);
+            }
+        }
+        published.incrementAndGet();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Closes every stream, so clients reconnect to another instance instead of waiting on a dead one.
+     */
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customers.changes.subscribers", this, CustomerChangeFeed::subscriberCount)
+                .description("Open customer change streams")
+                .register(registry);
+        FunctionCounter.builder("customers.changes.published", published, AtomicLong::get)
+                .description("Customer changes published to the change streams")
+                .register(registry);
+        FunctionCounter.builder("customers.changes.dropped", dropped, AtomicLong::get)
+                .description("Buffered changes discarded because a subscriber fell behind")
+                .register(registry);
+        FunctionCounter.builder("customers.changes.resyncs", resyncs, AtomicLong::get)
+                .description("Resync events sent to subscribers that lost changes")
+                .register(registry);
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Change> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean resyncPending = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Change change) {
+            if (!buffer.offer(change)) {
+                // Too far behind to catch up: everything buffered is stale once the client reloads
+                dropped.addAndGet(buffer.size());
+                buffer.clear();
+                resync();
+                buffer.offer(change);
+            }
+            schedule();
+        }
+
+        void resync() {
+            resyncPending.set(true);
+            schedule();
+        }
+
+        void heartbeat() {
+            if (buffer.isEmpty()) {
+                buffer.offer(HEARTBEAT);
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        /**
+         * A pending resync goes out before anything buffered after the overflow that caused it.
+         */
+        private Change nextChange() throws IOException {
+            if (resyncPending.getAndSet(false)) {
+                resyncs.incrementAndGet();
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}"));
+            }
+            return buffer.poll();
+        }
+
+        private void drain() {
+            try {
+                do {
+                    for (Change change = nextChange(); change != null; change = nextChange()) {
+                        if (change == HEARTBEAT) {
+                            emitter.send(SseEmitter.event().comment(""));
+                        } else {
+                            emitter.send(SseEmitter.event()
+                                    .id(instanceId + "-" + change.sequence())
+                                    .name(change.name())
+                                    .data(change.data()));
+                        }
+                    }
+                    sending.set(false);
+                    // Anything offered after the last poll but before the flag was cleared is sent by this loop
+                } while ((!buffer.isEmpty() || resyncPending.get()) && sending.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone; the container reports the error to the emitter, which unsubscribes it
+                subscribers.remove(this);
+                sending.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sparta.northwind.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole customers table to an output stream one row at a time.
+ * Rows come from a streaming JDBC result set projected straight into DTOs, so no entity is ever
+ * held by the persistence context and heap use does not depend on how many customers are exported.
+ */
+@Service
+public class CustomerExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+
+        public static Format fromParameter(String value) {
+            for (Format format : values()) {
+                if (format.fileExtension.equals(value.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    static final String CSV_HEADER = "customerID,companyName,contactName,city";
+
+    private final CustomerRepository customerRepository;
+    private final ObjectWriter jsonWriter;
+
+    public CustomerExportService(CustomerRepository customerRepository, ObjectMapper objectMapper) {
+        this.customerRepository = customerRepository;
+        // Rows are appended to a shared buffered writer, so it must neither be closed nor flushed per row
+        this.jsonWriter = objectMapper.writerFor(CustomerDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+    /**
+     * Streams all customers to the given output in the requested format.
+     * The output stream is flushed but not closed.
+     *
+     * @return the number of customers written
+     */
+    @Transactional(readOnly = true)
+    public long exportCustomers(OutputStream outputStream, Format format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<CustomerDto> customers = customerRepository.streamAllDtos()) {
+            Iterator<CustomerDto> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                CustomerDto customerDto = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, customerDto);
+                } else {
+                    jsonWriter.writeValue(writer, customerDto);
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, CustomerDto customerDto) throws IOException {
+        writeCsvField(writer, customerDto.getCustomerID());
+        writer.write(',');
+        writeCsvField(writer, customerDto.getCompanyName());
+        writer.write(',');
+        writeCsvField(writer, customerDto.getContactName());
+        writer.write(',');
+        writeCsvField(writer, customerDto.getCity());
+        writer.write('\n');
+    }
+
+    /**
+     * RFC 4180 quoting: fields containing a separator, quote or line break are wrapped in quotes
+     * and embedded quotes are doubled. Nulls are written as empty fields.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,183 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gathers single-customer lookups into IN queries, in the manner of a DataLoader: the first lookup opens a
+ * batch, lookups of any customer arriving within {@code northwind.lookup-batching.window} join it, and the
+ * batch is sent as one query when the window ends or {@code max-batch-size} customers have joined, whichever
+ * is first. Each caller's future is completed from the query's result.
+ * <p>
+ * Off by default ({@code northwind.lookup-batching.enabled}). It trades up to one window of latency on every
+ * cache miss for far fewer round trips when pages fan out into many lookups at once.
+ */
+@Component
+public class CustomerLookupBatcher implements MeterBinder, DisposableBean {
+
+    private final CustomerRepository customerRepository;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    /** Guards {@link #open}. */
+    private final Object lock = new Object();
+    private Batch open;
+
+    private final ScheduledExecutorService windows = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-lookup-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService queries = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedLookups = new AtomicLong();
+
+    private final class Batch {
+        final Map<String, CompletableFuture<CustomerDto>> lookups = new HashMap<>();
+    }
+
+    public CustomerLookupBatcher(CustomerRepository customerRepository,
+                                 @Value("${northwind.lookup-batching.enabled:false}") boolean enabled,
+                                 @Value("${northwind.lookup-batching.window:2ms}") Duration window,
+                                 @Value("${northwind.lookup-batching.max-batch-size:100}") int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("northwind.lookup-batching.max-batch-size must be positive");
+        }
+        this.customerRepository = customerRepository;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds the customer to the open batch, opening one if there is none.
+     *
+     * @return completed with the customer, or null if there is none, once the batch has been queried
+     */
+    public CompletableFuture<CustomerDto> load(String id) {
+        Batch full = null;
+        CompletableFuture<CustomerDto> lookup;
+        synchronized (lock) {
+            if (open == null) {
+                Batch batch = new Batch();
+                open = batch;
+                windows.schedule(() -> close(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            lookup = open.lookups.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (open.lookups.size() >= maxBatchSize) {
+                full = open;
+                open = null;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return lookup;
+    }
+
+    /**
+     * {@link #load} and wait, rethrowing the query's own exception.
+     */
+    public CustomerDto get(String id) {
+        try {
+            return load(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /** Ends the batch's window, unless it already ended by filling up. */
+    private void close(Batch batch) {
+        synchronized (lock) {
+            if (open != batch) {
+                return;
+            }
+            open = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        queries.execute(() -> query(batch));
+    }
+
+    private void query(Batch batch) {
+        batches.incrementAndGet();
+        batchedLookups.addAndGet(batch.lookups.size());
+        try {
+            Map<String, CustomerDto> found = byId(customerRepository.findDtosByIdIn(batch.lookups.keySet()));
+            batch.lookups.forEach((id, lookup) -> lookup.complete(found.get(id.stripTrailing())));
+        } catch (RuntimeException | Error e) {
+            batch.lookups.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Indexes customers from an IN query for matching back to the IDs asked for. The database compares IDs
+     * ignoring case and trailing spaces, as MySQL's default collation does, so the lookup must too or "alfki"
+     * would find a row here that the single-customer query returns. Callers strip trailing spaces from the ID
+     * they look up.
+     */
+    static Map<String, CustomerDto> byId(Collection<CustomerDto> customers) {
+        Map<String, CustomerDto> byId = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (CustomerDto customer : customers) {
+            byId.put(customer.getCustomerID().stripTrailing(), customer);
+        }
+        return byId;
+    }
+
+    /**
+     * Answers the open batch at once, then stops.
+     */
+    @Override
+    public void destroy() {
+        windows.shutdownNow();
+        Batch last;
+        synchronized (lock) {
+            last = open;
+            open = null;
+        }
+        if (last != null) {
+            query(last);
+        }
+        queries.shutdown();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("customers.lookups.batches", batches, AtomicLong::get)
+                .description("IN queries run by the customer lookup batcher")
+                .register(registry);
+        FunctionCounter.builder("customers.lookups.batched", batchedLookups, AtomicLong::get)
+                .description("Customer lookups answered by the lookup batcher's IN queries")
+                .register(registry);
+    }
+}
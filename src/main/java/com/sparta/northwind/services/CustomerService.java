@@ -1,70 +1,445 @@
 package com.sparta.northwind.services;
 
+import com.sparta.northwind.CacheConfig;
+import com.sparta.northwind.datasource.ReadWriteRoutingDataSource;
+import com.sparta.northwind.dtos.CustomerBatchResult;
+import com.sparta.northwind.dtos.CustomerChangeEvent;
+import com.sparta.northwind.dtos.CustomerCount;
 import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerLocation;
 import com.sparta.northwind.dtos.CustomerMapper;
+import com.sparta.northwind.dtos.CustomerPage;
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.dtos.CustomerSearchCriteria;
+import com.sparta.northwind.dtos.CustomerSuggestion;
 import com.sparta.northwind.entities.Customer;
 import com.sparta.northwind.repository.CustomerRepository;
+import com.sparta.northwind.repository.CustomerSpecifications;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CustomerService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    public static final int MAX_BULK_DELETE_SIZE = 1000;
+    public static final int MAX_MULTI_GET_SIZE = 100;
+    /** Columns the search can sort by: the primary key and the indexed columns. */
+    public static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("customerID", "companyName", "city", "region", "postalCode");
+    public static final int MAX_SUGGESTIONS = 50;
+    /** Matches hibernate.jdbc.batch_size so each chunk is one existence query and a few insert batches. */
+    static final int BATCH_CHUNK_SIZE = 500;
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerSuggestIndex suggestIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<String, CustomerDto> lookups;
+    private final CustomerLookupBatcher lookupBatcher;
+    private final CustomerStats stats;
 
-    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper){
+    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper,
+                           CustomerSuggestIndex suggestIndex,
+                           ApplicationEventPublisher eventPublisher, SingleFlight<String, CustomerDto> lookups,
+                           CustomerLookupBatcher lookupBatcher, CustomerStats stats){
         if (customerRepository == null) {
             throw new IllegalArgumentException("Repository cannot be null");
         }
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
+        this.suggestIndex = suggestIndex;
+        this.eventPublisher = eventPublisher;
+        this.lookups = lookups;
+        this.lookupBatcher = lookupBatcher;
+        this.stats = stats;
     }
 
-
+    @Transactional(readOnly = true)
     public List<CustomerDto> getAllCustomer() {
-//        return customerRepository.findAll().stream().map(customerMapper::toDto).toList();
+        return customerRepository.findAllDtos();
+    }
+
+    /**
+     * Keyset pagination over the customers ordered by CustomerID.
+     * One extra row is fetched to find out whether another page follows, so no count query is needed.
+     *
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the page size, between 1 and {@link #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public CustomerPage getCustomerPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<CustomerDto> customers = after == null
+                ? customerRepository.findDtoPage(fetchLimit)
+                : customerRepository.findDtoPageAfter(after, fetchLimit);
 
-        List<Customer> customers = customerRepository.findAll();
-        List<CustomerDto> customerDtos = new ArrayList<>();
-        for (Customer customer : customers) {
-            CustomerDto customerDto = customerMapper.toDto(customer);
-            customerDtos.add(customerDto);
+        if (customers.size() <= limit) {
+            return new CustomerPage(customers, null);
         }
-        return customerDtos;
+        List<CustomerDto> page = customers.subList(0, limit);
+        return new CustomerPage(page, page.get(limit - 1).getCustomerID());
     }
 
+    /**
+     * Prefix search over the indexed columns with server-side sorting and paging.
+     * Returns a slice rather than a page so no COUNT query is run; CustomerID is always added as the last
+     * sort key to keep paging stable.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CustomerDto> searchCustomers(CustomerSearchCriteria criteria, Pageable pageable) {
+        if (!criteria.hasFilters()) {
+            throw new IllegalArgumentException("At least one search filter is required");
+        }
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size cannot be more than " + MAX_PAGE_SIZE);
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty());
+            }
+        }
+
+        Sort sort = pageable.getSort().getOrderFor("customerID") == null
+                ? pageable.getSort().and(Sort.by("customerID"))
+                : pageable.getSort();
+        Pageable stablePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return customerRepository.findBy(CustomerSpecifications.matching(criteria),
+                query -> query.as(CustomerDto.class).slice(stablePageable));
+    }
+
+    /**
+     * Type-ahead over company and contact names, answered from the in-memory index without a database round trip.
+     *
+     * @param prefix the typed text, matched case-insensitively against the start of the names
+     * @param limit the maximum number of suggestions, between 1 and {@link #MAX_SUGGESTIONS}
+     */
+    public List<CustomerSuggestion> suggestCustomers(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Suggestion prefix cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Number of customers, from the in-memory {@link CustomerStats} rather than a COUNT query.
+     */
+    public long countCustomers() {
+        return stats.total();
+    }
+
+    /**
+     * Customers per country, city or region, most first, from the in-memory {@link CustomerStats}.
+     */
+    public List<CustomerCount> countCustomersBy(CustomerStats.Dimension dimension) {
+        return stats.countBy(dimension);
+    }
+
+    /**
+     * Served from the customers cache when possible. Misses are not cached, so a customer created
+     * later is visible immediately.
+     * <p>
+     * Concurrent lookups of the same customer that miss the cache, or all lookups when there is no cache, share
+     * one query. The query runs in the repository's own read-only transaction, so callers waiting on it hold no
+     * connection. Callers already in a transaction, which may hold uncommitted writes, or pinned to the primary
+     * after a write, query for themselves. With lookup batching enabled, the shared queries for different
+     * customers are further gathered into IN queries by {@link CustomerLookupBatcher}.
+     */
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id", unless = "#result == null")
     public CustomerDto getCustomerByID(String id) {
-        Customer customer = customerRepository.findById(id).orElse(null);
-        return customer != null ? customerMapper.toDto(customer) : null;
+        if (TransactionSynchronizationManager.isActualTransactionActive() || ReadWriteRoutingDataSource.isPinnedToPrimary()) {
+            return customerRepository.findDtoById(id).orElse(null);
+        }
+        if (lookupBatcher.isEnabled()) {
+            return lookups.load(id, () -> lookupBatcher.get(id));
+        }
+        return lookups.load(id, () -> customerRepository.findDtoById(id).orElse(null));
     }
 
+    /**
+     * Looks up many customers with one IN query, for clients that would otherwise look them up one by one.
+     *
+     * IDs are matched as the database compares them, ignoring case and trailing spaces, so an ID finds the same
+     * customer here as it does on its own.
+     *
+     * @return the customers found, in the order first requested; IDs with no customer are left out
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerDto> getCustomersByIds(Collection<String> ids) {
+        if (ids.size() > MAX_MULTI_GET_SIZE) {
+            throw new IllegalArgumentException("Cannot get more than " + MAX_MULTI_GET_SIZE + " customers at once");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        Map<String, CustomerDto> found = CustomerLookupBatcher.byId(customerRepository.findDtosByIdIn(distinctIds));
+        List<CustomerDto> customers = new ArrayList<>(found.size());
+        Set<String> added = new HashSet<>();
+        for (String id : distinctIds) {
+            CustomerDto customer = found.get(id.stripTrailing());
+            // "ALFKI" and "alfki" find the same customer, which is returned once
+            if (customer != null && added.add(customer.getCustomerID())) {
+                customers.add(customer);
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * The existence check loads the entity by ID, so a customer already in the second-level cache is reported
+     * as a conflict without a query. A count query, as {@code existsById} runs, always goes to the database.
+     * Check and insert share one read-write transaction, so with a read replica the check is made on the primary.
+     */
+    @CachePut(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#result.customerID")
+    @Transactional
     public CustomerDto createCustomer(CustomerDto customerDto) {
-        if (customerRepository.existsById(customerDto.getCustomerID())) {
+        if (customerRepository.findById(customerDto.getCustomerID()).isPresent()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Customer already exists");
         }
 
         Customer customer = customerMapper.toEntity(customerDto);
         Customer savedCustomer = customerRepository.save(customer);
-        return customerMapper.toDto(savedCustomer);
+        indexAfterCommit(customerDto);
+        countAfterCommit(List.of(), List.of(locationOf(savedCustomer)));
+        CustomerDto createdCustomer = customerMapper.toDto(savedCustomer);
+        announce(CustomerChangeEvent.created(createdCustomer));
+        return createdCustomer;
+    }
+
+    /**
+     * Creates many customers in one transaction. Each chunk costs one IN query to find existing IDs
+     * followed by batched inserts, instead of two round trips per customer.
+     * Customers that already exist, or appear twice in the request, are reported as conflicts and skipped.
+     * Nothing needs evicting from the customers cache because lookups of missing customers are never cached.
+     *
+     * @return one result per requested customer, in request order
+     */
+    @Transactional
+    public List<CustomerBatchResult> createCustomers(List<CustomerDto> customerDtos) {
+        if (customerDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " customers");
+        }
+
+        List<CustomerBatchResult> results = new ArrayList<>(customerDtos.size());
+        Set<String> seenIds = new HashSet<>();
+        for (int from = 0; from < customerDtos.size(); from += BATCH_CHUNK_SIZE) {
+            List<CustomerDto> chunk = customerDtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, customerDtos.size()));
+
+            List<String> chunkIds = new ArrayList<>(chunk.size());
+            for (CustomerDto customerDto : chunk) {
+                chunkIds.add(customerDto.getCustomerID());
+            }
+            Set<String> existingIds = new HashSet<>(customerRepository.findExistingIds(chunkIds));
+
+            List<Customer> newCustomers = new ArrayList<>(chunk.size());
+            List<CustomerLocation> newLocations = new ArrayList<>(chunk.size());
+            for (CustomerDto customerDto : chunk) {
+                String id = customerDto.getCustomerID();
+                if (existingIds.contains(id) || !seenIds.add(id)) {
+                    results.add(CustomerBatchResult.conflict(id));
+                } else {
+                    Customer customer = customerMapper.toEntity(customerDto);
+                    newCustomers.add(customer);
+                    newLocations.add(locationOf(customer));
+                    results.add(CustomerBatchResult.created(id));
+                    indexAfterCommit(customerDto);
+                    announce(CustomerChangeEvent.created(customerDto));
+                }
+            }
+            if (!newCustomers.isEmpty()) {
+                customerRepository.persistAll(newCustomers);
+                countAfterCommit(List.of(), newLocations);
+            }
+        }
+        return results;
     }
 
+    /**
+     * Deletes the customer and reports not-found from the affected row count. That takes two statements: the
+     * customer's location is read first, in the same transaction, to take it off the customer stats, then one
+     * DELETE removes the row without loading the entity.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id")
+    @Transactional
     public boolean deleteCustomerById(String id) {
-        if (customerRepository.existsById(id)) {
-            customerRepository.deleteById(id);
-            return true;
+        TransactionCallbacks.afterCommit(() -> suggestIndex.remove(id));
+        List<CustomerLocation> before = customerRepository.findLocationsByIdIn(List.of(id));
+        boolean deleted = customerRepository.deleteRowById(id) > 0;
+        if (deleted) {
+            countAfterCommit(before, List.of());
+            announce(CustomerChangeEvent.deleted(id));
         }
-        return false;
+        return deleted;
     }
 
+    /**
+     * Deletes many customers with one DELETE ... IN statement.
+     * The whole customers cache is cleared rather than evicting each ID, which keeps a purge of
+     * a thousand customers from walking the cache a thousand times.
+     * The statement does not say which IDs existed, so the customers are first found by one IN query in the same
+     * transaction. Only those are taken off the customer stats and the suggest index and announced as deleted,
+     * under the IDs as stored, so IDs that never existed publish no change events.
+     *
+     * @return the number of customers that existed and were deleted
+     */
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, allEntries = true)
+    @Transactional
+    public int deleteCustomersByIds(Collection<String> ids) {
+        if (ids.size() > MAX_BULK_DELETE_SIZE) {
+            throw new IllegalArgumentException("Cannot delete more than " + MAX_BULK_DELETE_SIZE + " customers at once");
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        List<CustomerLocation> before = customerRepository.findLocationsByIdIn(distinctIds);
+        List<String> found = before.stream().map(CustomerLocation::getCustomerID).toList();
+        TransactionCallbacks.afterCommit(() -> found.forEach(suggestIndex::remove));
+        int deleted = customerRepository.deleteRowsByIdIn(distinctIds);
+        if (deleted > 0) {
+            countAfterCommit(before, List.of());
+            found.forEach(id -> announce(CustomerChangeEvent.deleted(id)));
+        }
+        return deleted;
+    }
+
+    /**
+     * Replaces the customer. Its location is read in the same transaction as the save, so the customer stats move it
+     * from where this write found it, and the stats and index only change once the write has committed.
+     */
+    @CachePut(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#customerDto.customerID")
+    @Transactional
     public CustomerDto updateCustomer(CustomerDto customerDto) {
         // Existence is validated in the controller before calling this method
         Customer customer = customerMapper.toEntity(customerDto);
+        List<CustomerLocation> before = customerRepository.findLocationsByIdIn(List.of(customerDto.getCustomerID()));
         Customer updatedCustomer = customerRepository.save(customer);
-        return customerMapper.toDto(updatedCustomer);
+        indexAfterCommit(customerDto);
+        countAfterCommit(before, List.of(locationOf(updatedCustomer)));
+        CustomerDto updatedCustomerDto = customerMapper.toDto(updatedCustomer);
+        announce(CustomerChangeEvent.updated(updatedCustomerDto));
+        return updatedCustomerDto;
+    }
+
+    /**
+     * Writes updates held back by {@link CustomerWriteBehindQueue}, each with the same result as
+     * {@link #updateCustomer}, using a few multi-row statements instead of a merge per customer, plus one IN query
+     * for the customers' locations before the write. The queue refreshes the customers cache once this has committed.
+     */
+    @Transactional
+    public void applyUpdates(List<CustomerDto> customerDtos) {
+        if (customerDtos.isEmpty()) {
+            return;
+        }
+        List<Customer> customers = new ArrayList<>(customerDtos.size());
+        List<CustomerLocation> after = new ArrayList<>(customerDtos.size());
+        List<String> ids = new ArrayList<>(customerDtos.size());
+        for (CustomerDto customerDto : customerDtos) {
+            Customer customer = customerMapper.toEntity(customerDto);
+            customers.add(customer);
+            after.add(locationOf(customer));
+            ids.add(customerDto.getCustomerID());
+            indexAfterCommit(customerDto);
+            announce(CustomerChangeEvent.updated(customerDto));
+        }
+        List<CustomerLocation> before = customerRepository.findLocationsByIdIn(ids);
+        customerRepository.upsertAll(customers);
+        countAfterCommit(before, after);
+    }
+
+    /**
+     * Applies only the supplied fields with one targeted UPDATE, and reports not-found from the affected row count.
+     * Nothing is read before the write unless the patch moves the customer, in which case its old location is
+     * read for the customer stats.
+     *
+     * @return true if the customer existed and was updated
+     */
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS_CACHE, key = "#id")
+    @Transactional
+    public boolean patchCustomer(String id, CustomerPatchDto patch) {
+        if (!patch.hasChanges()) {
+            throw new IllegalArgumentException("Patch must change at least one field");
+        }
+        boolean moves = patch.getCountry() != null || patch.getCity() != null || patch.getRegion() != null;
+        List<CustomerLocation> before = moves ? customerRepository.findLocationsByIdIn(List.of(id)) : List.of();
+        boolean updated = customerRepository.patchById(id, patch) > 0;
+        if (updated && moves) {
+            List<CustomerLocation> after = new ArrayList<>(before.size());
+            for (CustomerLocation location : before) {
+                after.add(new CustomerLocation(id,
+                        patch.getCountry() != null ? patch.getCountry() : location.getCountry(),
+                        patch.getCity() != null ? patch.getCity() : location.getCity(),
+                        patch.getRegion() != null ? patch.getRegion() : location.getRegion()));
+            }
+            countAfterCommit(before, after);
+        }
+        if (updated && (patch.getCompanyName() != null || patch.getContactName() != null)) {
+            TransactionCallbacks.afterCommit(() -> suggestIndex.patch(id, patch.getCompanyName(), patch.getContactName()));
+        }
+        if (updated) {
+            announce(CustomerChangeEvent.patched(id));
+        }
+        return updated;
+    }
+
+    /**
+     * Publishes the change for the change feed, and once it is committed stops sharing any lookup of the customer
+     * started before it, so callers arriving after the write see it.
+     */
+    private void announce(CustomerChangeEvent event) {
+        eventPublisher.publishEvent(event);
+        TransactionCallbacks.afterCommit(() -> lookups.forget(event.getCustomerID()));
+    }
+
+    /**
+     * Keeps the suggest index in step with a written customer once the write is committed,
+     * so a rolled-back write never shows up in type-ahead.
+     */
+    private void indexAfterCommit(CustomerDto customerDto) {
+        TransactionCallbacks.afterCommit(() -> suggestIndex.put(customerDto.getCustomerID(),
+                customerDto.getCompanyName(), customerDto.getContactName()));
+    }
+
+    /**
+     * Moves the written customers in the customer stats once the write is committed. Writes that leave every
+     * customer where it was are not recorded, so they do not hold off a reconciliation.
+     */
+    private void countAfterCommit(List<CustomerLocation> before, List<CustomerLocation> after) {
+        if (!before.equals(after)) {
+            TransactionCallbacks.afterCommit(() -> stats.record(before, after));
+        }
+    }
+
+    private static CustomerLocation locationOf(Customer customer) {
+        return new CustomerLocation(customer.getCustomerID(), customer.getCountry(), customer.getCity(), customer.getRegion());
     }
 }
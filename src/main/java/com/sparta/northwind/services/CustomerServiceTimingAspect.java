@@ -0,0 +1,74 @@
+package com.sparta.northwind.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Times the public {@link CustomerService} methods as {@value #TIMER_NAME}, tagged with the operation and its outcome.
+ * Accessors that only read a counter held in memory are left out, as their timers would carry no signal.
+ * Runs outside the cache and transaction advice, so cache hits and commit time are part of the measurement.
+ * Percentiles and histogram buckets are configured in application.properties.
+ * <p>
+ * Outcomes: {@code success} (including every void method that returns), {@code not-found} (null or false returned),
+ * {@code conflict}, {@code invalid} (rejected arguments) and {@code error}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CustomerServiceTimingAspect {
+
+    public static final String TIMER_NAME = "customers.service";
+
+    private final MeterRegistry meterRegistry;
+
+    public CustomerServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.sparta.northwind.services.CustomerService.*(..))"
+            + " && !execution(* com.sparta.northwind.services.CustomerService.countCustomers*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            boolean returnsNothing = ((MethodSignature) joinPoint.getSignature()).getReturnType() == void.class;
+            outcome = !returnsNothing && (result == null || Boolean.FALSE.equals(result)) ? "not-found" : "success";
+            return result;
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Time spent in CustomerService operations")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof DataIntegrityViolationException
+                || e instanceof ResponseStatusException statusException && statusException.getStatusCode() == HttpStatus.CONFLICT) {
+            return "conflict";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+}
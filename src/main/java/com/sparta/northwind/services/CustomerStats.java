@@ -0,0 +1,280 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.datasource.ReadWriteRoutingDataSource;
+import com.sparta.northwind.dtos.CustomerCount;
+import com.sparta.northwind.dtos.CustomerLocation;
+import com.sparta.northwind.dtos.CustomerLocationCount;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counts of customers by country, city and region, so dashboards read them without touching the database.
+ * The counts are seeded by one GROUP BY once the application is ready and kept current by the write methods of
+ * {@link CustomerService}, which pass each changed customer's location from before and after the write.
+ * <p>
+ * Every {@code northwind.stats.reconcile-interval} the GROUP BY is run again on the primary and replaces the
+ * counts, which corrects writes made directly in the database and the rare write that races a reconciliation.
+ */
+@Component
+public class CustomerStats implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerStats.class);
+
+    /** Most customers first; ties, and the customers with no value last, in value order. */
+    private static final Comparator<CustomerCount> BY_CUSTOMERS = Comparator
+            .comparingLong(CustomerCount::getCustomers).reversed()
+            .thenComparing(CustomerCount::getValue, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /** A column the customers are counted by. */
+    public enum Dimension {
+        COUNTRY,
+        CITY,
+        REGION
+    }
+
+    private final CustomerRepository customerRepository;
+    private final long reconcileIntervalMillis;
+    private final ScheduledExecutorService reconciler;
+
+    /** Held for a whole reconciliation, so only one GROUP BY runs at a time. */
+    private final Object reconcileLock = new Object();
+    /** Guards the counts and everything below it. */
+    private final Object lock = new Object();
+    private Map<Dimension, Map<String, Long>> counts = emptyCounts();
+    private long total;
+    private boolean loaded;
+    /** Whether the last reconciliation was put aside because changes were recorded while it ran. */
+    private boolean deferred;
+    /** Sorted counts handed to readers, dropped whenever the counts change. */
+    private final Map<Dimension, List<CustomerCount>> sorted = new EnumMap<>(Dimension.class);
+
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong reconciliations = new AtomicLong();
+    private final AtomicLong corrections = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public CustomerStats(CustomerRepository customerRepository,
+                         @Value("${northwind.stats.reconcile-interval:5m}") Duration reconcileInterval) {
+        if (reconcileInterval.isNegative() || reconcileInterval.isZero()) {
+            throw new IllegalArgumentException("northwind.stats.reconcile-interval must be positive");
+        }
+        this.customerRepository = customerRepository;
+        this.reconcileIntervalMillis = reconcileInterval.toMillis();
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Seeds the counts in the background and reconciles them every interval from then on.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Customer stats reconciliation failed; the counts are kept until the next one", e);
+        }
+    }
+
+    /**
+     * Replaces the counts with a fresh GROUP BY on the primary, which sees every committed write.
+     * The query may or may not have seen changes recorded while it ran, so in that case its result is put
+     * aside and the next run tries again; a run after one put aside is applied regardless, so steady writes
+     * cannot hold reconciliation off for good. Reconciliations run one at a time.
+     *
+     * @return whether the counts were replaced
+     */
+    public boolean reconcile() {
+        synchronized (reconcileLock) {
+            return reconcileNow();
+        }
+    }
+
+    private boolean reconcileNow() {
+        long changesBefore = changes.get();
+        List<CustomerLocationCount> rows;
+        try (ReadWriteRoutingDataSource.PrimaryPin pin = ReadWriteRoutingDataSource.pinToPrimary()) {
+            rows = customerRepository.countByLocation();
+        }
+        Map<Dimension, Map<String, Long>> fresh = emptyCounts();
+        long freshTotal = 0;
+        for (CustomerLocationCount row : rows) {
+            add(fresh, row.getCountry(), row.getCity(), row.getRegion(), row.getCustomers());
+            freshTotal += row.getCustomers();
+        }
+
+        synchronized (lock) {
+            if (loaded && !deferred && changes.get() != changesBefore) {
+                deferred = true;
+                return false;
+            }
+            if (loaded) {
+                corrections.addAndGet(differences(counts, fresh));
+            }
+            counts = fresh;
+            total = freshTotal;
+            loaded = true;
+            deferred = false;
+            sorted.clear();
+        }
+        reconciliations.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Moves customers from where they were to where they are. A customer only in {@code before} was deleted,
+     * one only in {@code after} was created.
+     */
+    public void record(Collection<CustomerLocation> before, Collection<CustomerLocation> after) {
+        if (before.isEmpty() && after.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            for (CustomerLocation location : before) {
+                add(counts, location.getCountry(), location.getCity(), location.getRegion(), -1);
+            }
+            for (CustomerLocation location : after) {
+                add(counts, location.getCountry(), location.getCity(), location.getRegion(), 1);
+            }
+            total += after.size() - before.size();
+            changes.incrementAndGet();
+            sorted.clear();
+        }
+    }
+
+    public long total() {
+        ensureLoaded();
+        synchronized (lock) {
+            return total;
+        }
+    }
+
+    /**
+     * The customers with each value of the column, most first. Served from the counts as they stand; the sorted
+     * list is only rebuilt after they change.
+     */
+    public List<CustomerCount> countBy(Dimension dimension) {
+        ensureLoaded();
+        synchronized (lock) {
+            return sorted.computeIfAbsent(dimension, key -> {
+                List<CustomerCount> result = new ArrayList<>(counts.get(key).size());
+                counts.get(key).forEach((value, customers) -> {
+                    if (customers > 0) {
+                        result.add(new CustomerCount(value, customers));
+                    }
+                });
+                result.sort(BY_CUSTOMERS);
+                return List.copyOf(result);
+            });
+        }
+    }
+
+    /**
+     * Counts the table now if the background seed has not finished yet, so the first reader never sees empty counts.
+     * Readers arriving together, or while the seed runs, wait for the one GROUP BY rather than each running their own.
+     */
+    private void ensureLoaded() {
+        if (isLoaded()) {
+            return;
+        }
+        synchronized (reconcileLock) {
+            if (!isLoaded()) {
+                reconcileNow();
+            }
+        }
+    }
+
+    private boolean isLoaded() {
+        synchronized (lock) {
+            return loaded;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reconciler.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("customers.stats.reconciliations", reconciliations, AtomicLong::get)
+                .description("Times the customer stats were replaced by a fresh GROUP BY")
+                .register(registry);
+        FunctionCounter.builder("customers.stats.corrections", corrections, AtomicLong::get)
+                .description("Customer stats counts found wrong, and corrected, by reconciliation")
+                .register(registry);
+        FunctionCounter.builder("customers.stats.failures", failures, AtomicLong::get)
+                .description("Customer stats reconciliations that failed")
+                .register(registry);
+    }
+
+    private static Map<Dimension, Map<String, Long>> emptyCounts() {
+        Map<Dimension, Map<String, Long>> counts = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            // HashMap, as customers with no value in a column are counted under a null key
+            counts.put(dimension, new HashMap<>());
+        }
+        return counts;
+    }
+
+    private static void add(Map<Dimension, Map<String, Long>> counts, String country, String city, String region, long delta) {
+        add(counts.get(Dimension.COUNTRY), country, delta);
+        add(counts.get(Dimension.CITY), city, delta);
+        add(counts.get(Dimension.REGION), region, delta);
+    }
+
+    private static void add(Map<String, Long> counts, String value, long delta) {
+        counts.merge(value, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+
+    /** How many values, across all columns, have a different count in the two. */
+    private static long differences(Map<Dimension, Map<String, Long>> held, Map<Dimension, Map<String, Long>> fresh) {
+        long differences = 0;
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, Long> heldCounts = held.get(dimension);
+            Map<String, Long> freshCounts = fresh.get(dimension);
+            for (Map.Entry<String, Long> entry : heldCounts.entrySet()) {
+                if (!Objects.equals(entry.getValue(), freshCounts.get(entry.getKey()))) {
+                    differences++;
+                }
+            }
+            for (String value : freshCounts.keySet()) {
+                if (!heldCounts.containsKey(value)) {
+                    differences++;
+                }
+            }
+        }
+        return differences;
+    }
+}
@@ -0,0 +1,281 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.datasource.ReadWriteRoutingDataSource;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerSuggestion;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory, case-insensitive prefix index over company and contact names for type-ahead.
+ * Names are kept in a sorted concurrent map keyed by the lower-cased name, so a prefix lookup is a
+ * range scan that costs O(log n + limit) and never touches the database.
+ * The index is filled from a streaming scan on a background thread once the application is ready and kept
+ * current by the write methods of {@link CustomerService}.
+ * <p>
+ * As a health indicator in the readiness group it reports OUT_OF_SERVICE until the scan has ended, so an instance
+ * does not take traffic while type-ahead would miss most customers. A failed scan still ends it, with the error in
+ * the details, as a broken index should not stall a rollout.
+ */
+@Component
+public class CustomerSuggestIndex implements HealthIndicator, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSuggestIndex.class);
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    // Rough per-object costs on a 64-bit JVM with compressed oops, used for the memory gauge
+    private static final long SKIP_LIST_ENTRY_BYTES = 32 + 24;
+    private static final long STRING_BYTES = 24 + 16;
+    private static final long NAMES_ENTRY_BYTES = 32 + 24;
+
+    /** Indexed names of one customer, needed to find its keys again on update or delete. */
+    private record IndexedNames(String companyName, String contactName) {
+    }
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentSkipListMap<String, CustomerSuggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, IndexedNames> namesById = new ConcurrentHashMap<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    /** Customers removed while the scan runs, which it may still read and must not add back. */
+    private final Set<String> removedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean loaded;
+    private volatile String loadError;
+
+    public CustomerSuggestIndex(CustomerRepository customerRepository, PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Starts the scan once the application has started, in a read-only transaction as the stream needs one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform().name("customer-suggest-index-load").daemon().start(this::loadInBackground);
+    }
+
+    private void loadInBackground() {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> load());
+        } catch (RuntimeException e) {
+            loadError = e.toString();
+            log.warn("Customer suggest index load failed; suggestions cover only customers written since", e);
+        } finally {
+            loaded = true;
+        }
+    }
+
+    /**
+     * Loads every customer into the index. Customers already written through the service while the scan
+     * runs are left as they are, because the scan may have read an older version of them, and customers removed
+     * meanwhile are not added back. Must run inside a transaction.
+     */
+    void load() {
+        long started = System.nanoTime();
+        loading = true;
+        try (Stream<CustomerDto> customers = customerRepository.streamAllDtos()) {
+            Iterator<CustomerDto> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                CustomerDto customer = iterator.next();
+                if (!removedDuringLoad.contains(customer.getCustomerID())) {
+                    addIfAbsent(customer);
+                }
+            }
+        } finally {
+            loading = false;
+            removedDuringLoad.clear();
+        }
+        loaded = true;
+        log.info("Customer suggest index loaded {} customers in {} ms",
+                namesById.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = loaded ? Health.up() : Health.outOfService();
+        health.withDetail("customers", namesById.size());
+        if (loadError != null) {
+            health.withDetail("error", loadError);
+        }
+        return health.build();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns up to {@code limit} names starting with the prefix, ignoring case, in alphabetical order.
+     */
+    public List<CustomerSuggestion> suggest(String prefix, int limit) {
+        String from = normalize(prefix);
+        List<CustomerSuggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+        for (CustomerSuggestion suggestion : entries.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            if (suggestions.size() == limit) {
+                break;
+            }
+            suggestions.add(suggestion);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Indexes the customer, replacing any names indexed for it before.
+     */
+    public void put(String customerID, String companyName, String contactName) {
+        namesById.compute(customerID, (id, previous) -> {
+            if (previous != null) {
+                removeEntries(id, previous);
+            }
+            IndexedNames names = new IndexedNames(companyName, contactName);
+            addEntries(id, names);
+            return names;
+        });
+    }
+
+    /**
+     * Changes only the names that are not null and keeps the others. A customer not indexed yet, because the scan
+     * has not reached it or it was added straight to the database, is indexed from its full row instead, as the
+     * patch alone would leave out the names it does not change.
+     */
+    public void patch(String customerID, String companyName, String contactName) {
+        if (companyName == null && contactName == null) {
+            return;
+        }
+        IndexedNames patched = namesById.computeIfPresent(customerID, (id, previous) -> {
+            removeEntries(id, previous);
+            IndexedNames names = new IndexedNames(companyName != null ? companyName : previous.companyName(),
+                    contactName != null ? contactName : previous.contactName());
+            addEntries(id, names);
+            return names;
+        });
+        if (patched == null) {
+            indexFromDatabase(customerID);
+        }
+    }
+
+    /**
+     * Reads the customer from the primary, as the write that prompted it has only just committed, and indexes it
+     * unless it was indexed meanwhile.
+     */
+    private void indexFromDatabase(String customerID) {
+        Optional<CustomerDto> customer;
+        try (ReadWriteRoutingDataSource.PrimaryPin pin = ReadWriteRoutingDataSource.pinToPrimary()) {
+            customer = customerRepository.findDtoById(customerID);
+        }
+        customer.ifPresent(this::addIfAbsent);
+    }
+
+    private void addIfAbsent(CustomerDto customer) {
+        namesById.computeIfAbsent(customer.getCustomerID(), id -> {
+            IndexedNames names = new IndexedNames(customer.getCompanyName(), customer.getContactName());
+            addEntries(id, names);
+            return names;
+        });
+    }
+
+    public void remove(String customerID) {
+        if (loading) {
+            removedDuringLoad.add(customerID);
+        }
+        namesById.computeIfPresent(customerID, (id, previous) -> {
+            removeEntries(id, previous);
+            return null;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Approximate heap retained by the index, from fixed per-object costs plus the characters held.
+     */
+    public long estimatedMemoryBytes() {
+        return estimatedBytes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customers.suggest.index.entries", this, CustomerSuggestIndex::size)
+                .description("Names held by the customer type-ahead index")
+                .register(registry);
+        Gauge.builder("customers.suggest.index.memory", this, CustomerSuggestIndex::estimatedMemoryBytes)
+                .description("Estimated heap used by the customer type-ahead index")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void addEntries(String customerID, IndexedNames names) {
+        estimatedBytes.addAndGet(NAMES_ENTRY_BYTES);
+        addEntry(customerID, names.companyName(), CustomerSuggestion.Field.COMPANY_NAME);
+        addEntry(customerID, names.contactName(), CustomerSuggestion.Field.CONTACT_NAME);
+    }
+
+    private void removeEntries(String customerID, IndexedNames names) {
+        estimatedBytes.addAndGet(-NAMES_ENTRY_BYTES);
+        removeEntry(customerID, names.companyName(), CustomerSuggestion.Field.COMPANY_NAME);
+        removeEntry(customerID, names.contactName(), CustomerSuggestion.Field.CONTACT_NAME);
+    }
+
+    private void addEntry(String customerID, String name, CustomerSuggestion.Field field) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = key(name, customerID, field);
+        entries.put(key, new CustomerSuggestion(customerID, name, field));
+        estimatedBytes.addAndGet(entryBytes(key, name));
+    }
+
+    private void removeEntry(String customerID, String name, CustomerSuggestion.Field field) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = key(name, customerID, field);
+        if (entries.remove(key) != null) {
+            estimatedBytes.addAndGet(-entryBytes(key, name));
+        }
+    }
+
+    /**
+     * Keys sort by normalized name first; the customer ID and field keep equal names apart.
+     */
+    private static String key(String name, String customerID, CustomerSuggestion.Field field) {
+        return normalize(name) + KEY_SEPARATOR + customerID + KEY_SEPARATOR + field.ordinal();
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long entryBytes(String key, String name) {
+        return SKIP_LIST_ENTRY_BYTES + STRING_BYTES + key.length() + STRING_BYTES + name.length();
+    }
+}
@@ -0,0 +1,369 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.CacheConfig;
+import com.sparta.northwind.dtos.CustomerDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in write-behind for PUT /customers/{id}, enabled with {@code northwind.write-behind.enabled=true}.
+ * <p>
+ * Updates are acknowledged as soon as they are queued and held in memory keyed by CustomerID, so a customer
+ * updated many times between flushes is written once, with its last value. The queue holds at most
+ * {@code northwind.write-behind.capacity} customers; when it is full, updates of customers not already queued
+ * are refused and the caller is told to retry. A single background thread writes the queue through
+ * {@link CustomerService#applyUpdates} every {@code flush-interval}, or as soon as {@code batch-size} customers
+ * are waiting, and once more when the application shuts down.
+ * <p>
+ * Until its flush, an acknowledged update is not visible to reads and is lost if the process dies.
+ * <p>
+ * DELETE and PATCH write straight to the database, so before either runs the controller calls {@link #discard} or
+ * {@link #flush(Collection)} for the customers it touches. Both wait for a flush in progress, so a queued update
+ * can never land on top of a later delete or patch, nor put the customer back in the cache after it.
+ * A batch that keeps failing is retried {@code max-attempts} times, then written one customer at a time, and the
+ * customers that still fail are logged and dropped so they cannot hold up the updates behind them.
+ */
+@Component
+@ConditionalOnProperty(name = "northwind.write-behind.enabled", havingValue = "true")
+public class CustomerWriteBehindQueue implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerWriteBehindQueue.class);
+
+    private final CustomerService customerService;
+    private final Cache customersCache;
+    private final int capacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ScheduledExecutorService flusher;
+
+    /** Held while a batch is written and cached, so discards and direct flushes wait for it. */
+    private final Object writeLock = new Object();
+    private final Object lock = new Object();
+    private Map<String, CustomerDto> pending = new LinkedHashMap<>();
+    /** Failed writes so far of the queued update of each customer. */
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private boolean closed;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private Timer flushTimer;
+
+    public CustomerWriteBehindQueue(CustomerService customerService, CacheManager cacheManager,
+                                    @Value("${northwind.write-behind.capacity:10000}") int capacity,
+                                    @Value("${northwind.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${northwind.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                    @Value("${northwind.write-behind.max-attempts:5}") int maxAttempts) {
+        if (capacity < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Write-behind capacity, batch size and max attempts must be positive");
+        }
+        this.customerService = customerService;
+        this.customersCache = cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the customer for writing, replacing any update of it still waiting.
+     *
+     * @return false if the update was refused because the queue is full or shutting down
+     */
+    public boolean offer(CustomerDto customerDto) {
+        boolean batchReady;
+        synchronized (lock) {
+            boolean waiting = pending.containsKey(customerDto.getCustomerID());
+            if (closed || !waiting && pending.size() >= capacity) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            pending.put(customerDto.getCustomerID(), customerDto);
+            // A new value has not failed yet
+            attempts.remove(customerDto.getCustomerID());
+            (waiting ? coalesced : queued).incrementAndGet();
+            batchReady = pending.size() >= batchSize;
+        }
+        if (batchReady && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+        return true;
+    }
+
+    /** Customers whose update has failed at least once and has been neither written nor dropped since. */
+    public int retrying() {
+        synchronized (lock) {
+            return attempts.size();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Share of accepted updates that replaced one still waiting and so cost no write of their own.
+     */
+    public double coalescingRatio() {
+        long coalescedUpdates = coalesced.get();
+        long accepted = queued.get() + coalescedUpdates;
+        return accepted == 0 ? 0.0 : (double) coalescedUpdates / accepted;
+    }
+
+    /**
+     * Writes everything queued, a batch per transaction. Runs on the flusher thread, and on the closing thread
+     * once the flusher has stopped. A failed batch is queued again behind any newer updates of the same customers
+     * and retried on the next flush.
+     */
+    void flush() {
+        flushRequested.set(false);
+        while (true) {
+            synchronized (writeLock) {
+                List<CustomerDto> batch = takeBatch();
+                if (batch.isEmpty() || !write(batch)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the queued updates of the given customers now, on the calling thread, so a change made straight to
+     * the database afterwards applies on top of them. A failed write is queued again and its exception rethrown.
+     */
+    public void flush(Collection<String> customerIDs) {
+        synchronized (writeLock) {
+            List<CustomerDto> batch = take(customerIDs);
+            if (!batch.isEmpty()) {
+                try {
+                    customerService.applyUpdates(batch);
+                } catch (RuntimeException e) {
+                    failedFlushes.incrementAndGet();
+                    requeue(batch);
+                    throw e;
+                }
+                written(batch);
+            }
+        }
+    }
+
+    /**
+     * Drops the queued updates of the given customers, which are about to be deleted, once any flush in progress
+     * has finished.
+     */
+    public void discard(Collection<String> customerIDs) {
+        synchronized (writeLock) {
+            take(customerIDs);
+        }
+    }
+
+    /**
+     * Writes a batch taken from the queue and caches what was written. Called holding the write lock.
+     *
+     * @return false if the batch failed and was queued again
+     */
+    private boolean write(List<CustomerDto> batch) {
+        long started = System.nanoTime();
+        try {
+            customerService.applyUpdates(batch);
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            if (attemptsOf(batch) + 1 >= maxAttempts) {
+                log.warn("Write-behind flush of {} customers failed {} times, writing them one by one", batch.size(), maxAttempts, e);
+                writeOneByOne(batch);
+                return true;
+            }
+            log.warn("Write-behind flush of {} customers failed, will retry", batch.size(), e);
+            requeue(batch);
+            return false;
+        } finally {
+            if (flushTimer != null) {
+                flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+        written(batch);
+        return true;
+    }
+
+    /**
+     * Last attempt for a batch that keeps failing: each customer alone, so one bad row cannot sink the rest.
+     * Customers that still fail are dropped.
+     */
+    private void writeOneByOne(List<CustomerDto> batch) {
+        for (CustomerDto customerDto : batch) {
+            try {
+                customerService.applyUpdates(List.of(customerDto));
+                written(List.of(customerDto));
+            } catch (RuntimeException e) {
+                deadLettered.incrementAndGet();
+                forgetAttempts(List.of(customerDto));
+                log.error("Write-behind update dropped after {} attempts: {}", maxAttempts, customerDto, e);
+            }
+        }
+    }
+
+    private void written(List<CustomerDto> batch) {
+        forgetAttempts(batch);
+        written.addAndGet(batch.size());
+        // As updateCustomer's @CachePut does, so reads see the written value rather than an older cached one
+        for (CustomerDto customerDto : batch) {
+            customersCache.put(customerDto.getCustomerID(), customerDto);
+        }
+    }
+
+    private List<CustomerDto> takeBatch() {
+        synchronized (lock) {
+            List<CustomerDto> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            Iterator<CustomerDto> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            return batch;
+        }
+    }
+
+    private List<CustomerDto> take(Collection<String> customerIDs) {
+        synchronized (lock) {
+            List<CustomerDto> taken = new ArrayList<>();
+            for (String customerID : customerIDs) {
+                CustomerDto customerDto = pending.remove(customerID);
+                attempts.remove(customerID);
+                if (customerDto != null) {
+                    taken.add(customerDto);
+                }
+            }
+            return taken;
+        }
+    }
+
+    private int attemptsOf(List<CustomerDto> batch) {
+        synchronized (lock) {
+            int most = 0;
+            for (CustomerDto customerDto : batch) {
+                most = Math.max(most, attempts.getOrDefault(customerDto.getCustomerID(), 0));
+            }
+            return most;
+        }
+    }
+
+    /**
+     * Clears the failed attempts of customers whose update was written or dropped, so the map holds only customers
+     * still being retried and a later update of them starts from none.
+     */
+    private void forgetAttempts(List<CustomerDto> batch) {
+        synchronized (lock) {
+            for (CustomerDto customerDto : batch) {
+                attempts.remove(customerDto.getCustomerID());
+            }
+        }
+    }
+
+    private void requeue(List<CustomerDto> batch) {
+        synchronized (lock) {
+            Map<String, CustomerDto> retry = new LinkedHashMap<>();
+            for (CustomerDto customerDto : batch) {
+                retry.put(customerDto.getCustomerID(), customerDto);
+                // An update that arrived during the flush replaces the failed one below, and has not failed itself
+                if (!pending.containsKey(customerDto.getCustomerID())) {
+                    attempts.merge(customerDto.getCustomerID(), 1, Integer::sum);
+                }
+            }
+            // Updates that arrived during the flush are newer and win
+            retry.putAll(pending);
+            pending = retry;
+        }
+    }
+
+    /**
+     * Stops taking updates and writes whatever is still queued. Runs after the web server has stopped and
+     * before the data source is closed, as this bean depends on it through the service.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        synchronized (lock) {
+            closed = true;
+        }
+        flusher.shutdown();
+        if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Write-behind flusher did not stop in time");
+        }
+        flush();
+        int left = size();
+        if (left > 0) {
+            log.error("Write-behind queue closed with {} customer updates not written", left);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customers.write.behind.depth", this, CustomerWriteBehindQueue::size)
+                .description("Customers with an update waiting to be written")
+                .register(registry);
+        Gauge.builder("customers.write.behind.retrying", this, CustomerWriteBehindQueue::retrying)
+                .description("Customers whose update failed and is waiting to be retried")
+                .register(registry);
+        Gauge.builder("customers.write.behind.coalescing.ratio", this, CustomerWriteBehindQueue::coalescingRatio)
+                .description("Share of accepted updates that replaced one still waiting")
+                .register(registry);
+        updates(registry, "queued", queued);
+        updates(registry, "coalesced", coalesced);
+        updates(registry, "rejected", rejected);
+        FunctionCounter.builder("customers.write.behind.written", written, AtomicLong::get)
+                .description("Customers written by write-behind flushes")
+                .register(registry);
+        FunctionCounter.builder("customers.write.behind.failures", failedFlushes, AtomicLong::get)
+                .description("Write-behind batches that failed and were queued again")
+                .register(registry);
+        FunctionCounter.builder("customers.write.behind.dead.lettered", deadLettered, AtomicLong::get)
+                .description("Customer updates dropped after failing max-attempts times")
+                .register(registry);
+        flushTimer = Timer.builder("customers.write.behind.flush")
+                .description("Time to write one write-behind batch")
+                .register(registry);
+    }
+
+    private static void updates(MeterRegistry registry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("customers.write.behind.updates", count, AtomicLong::get)
+                .description("Updates offered to the write-behind queue")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.sparta.northwind.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, and callers arriving while it runs
+ * wait for it and share its result or its exception instead of running the loader again. Once the load finishes
+ * the key is free, so a later caller loads afresh; nothing is cached.
+ * <p>
+ * The loader must not call {@link #load} for the same key on the same thread, which would wait on itself.
+ *
+ * @param <K> the key type, with the equality that decides which loads are the same
+ * @param <V> the loaded value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Returns what the loader returns, running it unless a load of the same key is already in flight, in which case
+     * that load's result is returned or its exception rethrown.
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Only this call's entry: forget() may have let a newer load of the key start meanwhile
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // The leader's own exception, so callers handle a shared failure exactly as they would their own
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops sharing the load in flight for the key, if any, with callers that arrive from now on. Callers
+     * already waiting still get its result. Used when the data changes, so a load started before the change
+     * is not handed to callers that must see it.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /** Loads currently running. */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /** Callers so far that shared another caller's load instead of running their own. */
+    public long coalescedCount() {
+        return coalesced.get();
+    }
+}
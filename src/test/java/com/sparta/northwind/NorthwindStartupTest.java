@@ -0,0 +1,59 @@
+package com.sparta.northwind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application the way main does, against an in-memory database, and measures the time from launch
+ * until it has answered its first request. The time is printed and written to target/time-to-first-request-ms.txt
+ * for tracking across builds. The budget (northwind.startup.budget, default 60s) only catches gross regressions,
+ * such as queries blocking startup again; compare the recorded times for anything finer.
+ */
+class NorthwindStartupTest {
+
+    private static final Duration BUDGET = Duration.parse("PT" + System.getProperty("northwind.startup.budget", "60s"));
+
+    @Test
+    @DisplayName("The application answers its first request within the startup budget and records its startup steps")
+    void testTimeToFirstRequest() throws Exception {
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = NorthwindApplication.application().run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS northwind",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            // When: the first request arrives
+            HttpResponse<String> first = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/customers/TEST1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Duration timeToFirstRequest = Duration.ofNanos(System.nanoTime() - started);
+            System.out.printf("%nTime to first request: %d ms%n", timeToFirstRequest.toMillis());
+            Files.writeString(Path.of("target", "time-to-first-request-ms.txt"), timeToFirstRequest.toMillis() + "\n");
+
+            // Then: it is answered within the budget, with no demo run holding up startup
+            assertEquals(404, first.statusCode());
+            assertTrue(timeToFirstRequest.compareTo(BUDGET) < 0, () -> "Time to first request " + timeToFirstRequest);
+            assertEquals(0, context.getBeanNamesForType(CustomerServiceDemo.class).length);
+
+            // Then: the startup steps are available from the actuator
+            HttpResponse<String> startup = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/startup")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, startup.statusCode());
+            assertTrue(startup.body().contains("\"name\":\"spring.context.refresh\""), startup::body);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.sparta.northwind.benchmark;
+
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.entities.Customer;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deterministic customer fixtures shared by the benchmarks, shaped like the Northwind data.
+ */
+final class BenchmarkData {
+
+    private static final String[] CITIES = {"London", "Berlin", "Madrid", "Paris", "Seattle", "México D.F.", "São Paulo"};
+
+    private BenchmarkData() {
+    }
+
+    static Customer customer(int index) {
+        Customer customer = new Customer();
+        customer.setCustomerID(customerId(index));
+        customer.setCompanyName("Benchmark Company " + index);
+        customer.setContactName("Contact " + index);
+        customer.setContactTitle("Sales Representative");
+        customer.setAddress(index + " Benchmark Street");
+        customer.setCity(CITIES[index % CITIES.length]);
+        customer.setPostalCode(String.valueOf(10000 + index % 90000));
+        customer.setCountry("UK");
+        customer.setPhone("555-" + index);
+        return customer;
+    }
+
+    static CustomerDto customerDto(int index) {
+        Customer customer = customer(index);
+        return new CustomerDto(customer.getCustomerID(), customer.getCompanyName(), customer.getContactName(), customer.getCity());
+    }
+
+    static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add(customer(i));
+        }
+        return customers;
+    }
+
+    static List<CustomerDto> customerDtos(int count) {
+        List<CustomerDto> customerDtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customerDtos.add(customerDto(i));
+        }
+        return customerDtos;
+    }
+
+    /**
+     * Five-character base-36 ID, the shape of the CustomerID column.
+     */
+    static String customerId(int index) {
+        StringBuilder id = new StringBuilder(Integer.toString(index, 36).toUpperCase());
+        while (id.length() < 5) {
+            id.insert(0, '0');
+        }
+        return id.toString();
+    }
+
+    /**
+     * The builder Spring Boot's Jackson auto-configuration starts the application's mappers from: the builder's
+     * defaults, which register the well-known modules on the classpath, plus the parameter names module.
+     */
+    static Jackson2ObjectMapperBuilder objectMapperBuilder() {
+        return Jackson2ObjectMapperBuilder.json().modulesToInstall(new ParameterNamesModule());
+    }
+
+    /**
+     * In-memory repository answering the keyset page queries over rows in ID order. The seek is a binary search
+     * standing in for the primary key index, and each call builds a fresh DTO per returned row, as Hibernate does
+     * for the constructor projection, without any JDBC cost.
+     */
+    static CustomerRepository inMemoryRepository(List<Customer> rows) {
+        List<String> ids = rows.stream().map(Customer::getCustomerID).toList();
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findDtoPage" -> dtos(rows, 0, (Limit) args[0]);
+                    case "findDtoPageAfter" -> {
+                        int found = Collections.binarySearch(ids, (String) args[0]);
+                        yield dtos(rows, found >= 0 ? found + 1 : -found - 1, (Limit) args[1]);
+                    }
+                    case "toString" -> "inMemoryCustomerRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static List<CustomerDto> dtos(List<Customer> rows, int from, Limit limit) {
+        int to = Math.min(rows.size(), from + limit.max());
+        List<CustomerDto> customerDtos = new ArrayList<>(Math.max(to - from, 0));
+        for (Customer row : rows.subList(Math.min(from, to), to)) {
+            customerDtos.add(new CustomerDto(row.getCustomerID(), row.getCompanyName(), row.getContactName(), row.getCity()));
+        }
+        return customerDtos;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sparta.northwind.benchmark;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link CustomerDto#equals} and {@link CustomerDto#hashCode}, which back the cache and the tests.
+ * Equal and unequal pairs are measured separately because the unequal case can stop at the first field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerDtoBenchmark {
+
+    private CustomerDto customerDto;
+    private CustomerDto equalCustomerDto;
+    private CustomerDto otherCustomerDto;
+
+    @Setup
+    public void setUp() {
+        customerDto = BenchmarkData.customerDto(42);
+        // A distinct instance so equals cannot short-circuit on identity
+        equalCustomerDto = BenchmarkData.customerDto(42);
+        otherCustomerDto = BenchmarkData.customerDto(43);
+    }
+
+    @Benchmark
+    public boolean equalsSameValues() {
+        return customerDto.equals(equalCustomerDto);
+    }
+
+    @Benchmark
+    public boolean equalsDifferentValues() {
+        return customerDto.equals(otherCustomerDto);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return customerDto.hashCode();
+    }
+}
@@ -0,0 +1,125 @@
+package com.sparta.northwind.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.northwind.controllers.CustomerJsonHttpMessageConverter;
+import com.sparta.northwind.controllers.CustomerProtobufHttpMessageConverter;
+import com.sparta.northwind.controllers.JacksonCborHttpMessageConverter;
+import com.sparta.northwind.controllers.JacksonSmileHttpMessageConverter;
+import com.sparta.northwind.dtos.CustomerDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of a customer list in each encoding GET /customers/ and POST /customers/batch negotiate,
+ * through the converters the application registers. JSON is written by the hand-written converter and read by
+ * Jackson's, as in the application. The payload size of every combination is printed when its trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerEncodingBenchmark {
+
+    private static final Type CUSTOMER_LIST = new ParameterizedTypeReference<List<CustomerDto>>() {}.getType();
+
+    /** A response that discards its body; headers are recreated per write as in a real exchange. */
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    @Param({"100", "1000", "100000"})
+    public int size;
+
+    private List<CustomerDto> customerDtos;
+    private MediaType mediaType;
+    private GenericHttpMessageConverter<Object> writer;
+    private GenericHttpMessageConverter<Object> reader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        customerDtos = BenchmarkData.customerDtos(size);
+        // The parameter names module lets Jackson bind CustomerDto's constructor, as Spring Boot's mapper does
+        switch (format) {
+            case "json" -> {
+                ObjectMapper objectMapper = BenchmarkData.objectMapperBuilder().build();
+                mediaType = MediaType.APPLICATION_JSON;
+                writer = new CustomerJsonHttpMessageConverter(objectMapper);
+                reader = new MappingJackson2HttpMessageConverter(objectMapper);
+            }
+            case "cbor" -> {
+                mediaType = MediaType.APPLICATION_CBOR;
+                writer = reader = new JacksonCborHttpMessageConverter(BenchmarkData.objectMapperBuilder());
+            }
+            case "smile" -> {
+                mediaType = new MediaType("application", "x-jackson-smile");
+                writer = reader = new JacksonSmileHttpMessageConverter(BenchmarkData.objectMapperBuilder());
+            }
+            case "protobuf" -> {
+                mediaType = CustomerProtobufHttpMessageConverter.PROTOBUF;
+                writer = reader = new CustomerProtobufHttpMessageConverter();
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        writer.write(customerDtos, CUSTOMER_LIST, mediaType, output);
+        payload = output.getBodyAsBytes();
+        if (!customerDtos.equals(decode())) {
+            throw new IllegalStateException(format + " did not round-trip");
+        }
+        System.out.printf("%n%s payload for %d customers: %d bytes (%.1f per customer)%n",
+                format, size, payload.length, (double) payload.length / size);
+    }
+
+    @Benchmark
+    public void encode() throws IOException {
+        writer.write(customerDtos, CUSTOMER_LIST, mediaType, new DiscardingOutputMessage());
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(payload);
+        input.getHeaders().setContentType(mediaType);
+        return reader.read(CUSTOMER_LIST, null, input);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sparta.northwind.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.northwind.controllers.CustomerJsonHttpMessageConverter;
+import com.sparta.northwind.dtos.CustomerDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hand-written {@link CustomerJsonHttpMessageConverter} against Spring's default Jackson converter,
+ * writing the body of GET /customers/ to a discarding response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerJsonConverterBenchmark {
+
+    private static final Type CUSTOMER_LIST = new ParameterizedTypeReference<List<CustomerDto>>() {}.getType();
+
+    /** A response that discards its body; headers are recreated per write as in a real exchange. */
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    @Param({"100", "1000", "100000"})
+    public int size;
+
+    private List<CustomerDto> customerDtos;
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+    private CustomerJsonHttpMessageConverter customerConverter;
+
+    @Setup
+    public void setUp() {
+        customerDtos = BenchmarkData.customerDtos(size);
+        ObjectMapper objectMapper = BenchmarkData.objectMapperBuilder().build();
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        customerConverter = new CustomerJsonHttpMessageConverter(objectMapper);
+    }
+
+    @Benchmark
+    public void jackson() throws IOException {
+        jacksonConverter.write(customerDtos, CUSTOMER_LIST, MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+    }
+
+    @Benchmark
+    public void handWritten() throws IOException {
+        customerConverter.write(customerDtos, CUSTOMER_LIST, MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+    }
+}
@@ -0,0 +1,50 @@
+package com.sparta.northwind.benchmark;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerMapper;
+import com.sparta.northwind.dtos.CustomerMapperImpl;
+import com.sparta.northwind.entities.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the MapStruct-generated {@link CustomerMapper} in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+    private final CustomerMapper customerMapper = new CustomerMapperImpl();
+    private Customer customer;
+    private CustomerDto customerDto;
+
+    @Setup
+    public void setUp() {
+        customer = BenchmarkData.customer(42);
+        customerDto = BenchmarkData.customerDto(42);
+    }
+
+    @Benchmark
+    public CustomerDto toDto() {
+        return customerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer toEntity() {
+        return customerMapper.toEntity(customerDto);
+    }
+}
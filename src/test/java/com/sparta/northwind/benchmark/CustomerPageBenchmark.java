@@ -0,0 +1,68 @@
+package com.sparta.northwind.benchmark;
+
+import com.sparta.northwind.dtos.CustomerMapperImpl;
+import com.sparta.northwind.dtos.CustomerPage;
+import com.sparta.northwind.repository.CustomerRepository;
+import com.sparta.northwind.services.CustomerLookupBatcher;
+import com.sparta.northwind.services.CustomerStats;
+import com.sparta.northwind.services.CustomerService;
+import com.sparta.northwind.services.CustomerSuggestIndex;
+import com.sparta.northwind.services.SingleFlight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CustomerService#getCustomerPage}, the keyset pagination behind GET /customers/, against an in-memory
+ * repository, so the result is the cost of the service's paging (the extra row, the sublist and the cursor) and of
+ * materialising the DTOs, without JDBC. The deep page seeks past a cursor halfway through the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerPageBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"" + CustomerService.DEFAULT_PAGE_SIZE, "" + CustomerService.MAX_PAGE_SIZE})
+    public int limit;
+
+    private CustomerService customerService;
+    private String middleCursor;
+
+    @Setup
+    public void setUp() {
+        CustomerRepository customerRepository = BenchmarkData.inMemoryRepository(BenchmarkData.customers(size));
+        customerService = new CustomerService(customerRepository, new CustomerMapperImpl(),
+                new CustomerSuggestIndex(customerRepository, new JpaTransactionManager()), event -> { },
+                new SingleFlight<>(), new CustomerLookupBatcher(customerRepository, false, Duration.ZERO, 1),
+                new CustomerStats(customerRepository, Duration.ofMinutes(5)));
+        middleCursor = BenchmarkData.customerId(size / 2);
+    }
+
+    @Benchmark
+    public CustomerPage firstPage() {
+        return customerService.getCustomerPage(null, limit);
+    }
+
+    @Benchmark
+    public CustomerPage deepPage() {
+        return customerService.getCustomerPage(middleCursor, limit);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sparta.northwind.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package with the GC profiler, so every result also reports
+ * allocation rate and bytes allocated per operation.
+ * Run with {@code mvn test -Pbenchmark -Dtest=JmhBenchmarksTest}; narrow the run with a regular expression in
+ * {@code -Djmh.include}, e.g. {@code -Djmh.include=CustomerMapperBenchmark}. Results are also written to
+ * target/jmh-result.json for comparison between runs.
+ */
+@Tag("benchmark")
+class JmhBenchmarksTest {
+
+    @Test
+    @DisplayName("Mapping, DTO, serialization and service benchmarks")
+    void runBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", JmhBenchmarksTest.class.getPackageName() + ".*Benchmark"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
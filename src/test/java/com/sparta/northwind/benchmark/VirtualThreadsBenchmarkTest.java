@@ -0,0 +1,201 @@
+package com.sparta.northwind.benchmark;
+
+import com.sparta.northwind.NorthwindApplication;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load benchmark comparing Tomcat's platform-thread pool with virtual threads while the repository is slow.
+ * Each mode starts the application from its own configuration on a random port, on an in-memory database, with the
+ * customer repository replaced by a stub that sleeps like a blocking JDBC call, and is driven by a fixed number of concurrent clients. Every request asks for a
+ * different customer, so no cache or shared lookup spares it the repository call.
+ * Run with {@code mvn test -Pbenchmark -Dtest=VirtualThreadsBenchmarkTest}; the load can be tuned with
+ * {@code -Dbenchmark.concurrency}, {@code -Dbenchmark.repositoryDelayMs}, {@code -Dbenchmark.warmupSeconds}
+ * and {@code -Dbenchmark.measurementSeconds}.
+ */
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsBenchmarkTest.class);
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final Duration REPOSITORY_DELAY = Duration.ofMillis(Long.getLong("benchmark.repositoryDelayMs", 50));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmupSeconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.measurementSeconds", 15));
+    /** Distinct customer IDs of at most five base-36 characters. */
+    private static final long MAX_IDS = 36L * 36 * 36 * 36 * 36;
+
+    private record Result(String mode, long requests, long errors, Duration elapsed, long[] sortedLatenciesNanos) {
+
+        double throughput() {
+            return requests * 1_000_000_000.0 / elapsed.toNanos();
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatenciesNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    @Test
+    @DisplayName("Platform threads versus virtual threads against a slow repository")
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        log.info("GET /customers/{id}, a different ID each request: {} concurrent clients, repository delay {} ms, {} s measured",
+                CONCURRENCY, REPOSITORY_DELAY.toMillis(), MEASUREMENT.toSeconds());
+        log.info(String.format("%-10s %12s %10s %10s %10s %10s %8s", "mode", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "errors"));
+        for (Result result : List.of(platform, virtual)) {
+            log.info(String.format("%-10s %12.1f %10.1f %10.1f %10.1f %10.1f %8d", result.mode(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(95), result.percentileMillis(99),
+                    result.percentileMillis(99.9), result.errors()));
+        }
+
+        assertEquals(0, platform.errors(), "platform-thread run had failed requests");
+        assertEquals(0, virtual.errors(), "virtual-thread run had failed requests");
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NorthwindApplication.class)
+                .initializers(slowCustomerRepository())
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=200",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS northwind",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=warn",
+                        "--logging.level.com.sparta.northwind.benchmark=info")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUri = "http://localhost:" + port + "/customers/";
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            AtomicLong nextId = new AtomicLong();
+            load(mode, client, baseUri, nextId, WARMUP);
+            return load(mode, client, baseUri, nextId, MEASUREMENT);
+        }
+    }
+
+    /**
+     * Closed-loop load: every client sends its next request as soon as the previous one has been answered.
+     * IDs are numbered in base 36, which stays within the five characters a customer ID may have.
+     */
+    private static Result load(String mode, HttpClient client, String baseUri, AtomicLong nextId, Duration duration)
+            throws Exception {
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+
+        List<Future<long[]>> clients = new ArrayList<>(CONCURRENCY);
+        long[] errors = new long[CONCURRENCY];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                int clientIndex = i;
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        String id = Long.toString(nextId.getAndIncrement() % MAX_IDS, Character.MAX_RADIX);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + id)).GET().build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors[clientIndex]++;
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors[clientIndex]++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        long[] all = clients.stream().map(VirtualThreadsBenchmarkTest::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(mode, all.length, Arrays.stream(errors).sum(), elapsed, all);
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Registers, as the primary {@link CustomerRepository}, a stub that answers customer lookups after sleeping like a
+     * blocking query; everything else in the context is the application's own. A JDK proxy rather than a mock, so no
+     * test framework locking sits on the measured path.
+     */
+    private static ApplicationContextInitializer<GenericApplicationContext> slowCustomerRepository() {
+        CustomerRepository repository = (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findDtoById" -> {
+                        Thread.sleep(REPOSITORY_DELAY);
+                        yield Optional.of(customer((String) args[0]));
+                    }
+                    case "findDtosByIdIn" -> {
+                        Thread.sleep(REPOSITORY_DELAY);
+                        yield ((Collection<?>) args[0]).stream().map(id -> customer((String) id)).toList();
+                    }
+                    case "findIds", "countByLocation" -> List.of();
+                    case "streamAllDtos" -> Stream.empty();
+                    case "toString" -> "slowCustomerRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return context -> context.registerBean("slowCustomerRepository", CustomerRepository.class, () -> repository,
+                definition -> definition.setPrimary(true));
+    }
+
+    private static CustomerDto customer(String id) {
+        return new CustomerDto(id, "Benchmark Company Ltd", "Bench User", "London");
+    }
+}
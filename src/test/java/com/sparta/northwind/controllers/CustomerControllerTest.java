@@ -1,9 +1,21 @@
 package com.sparta.northwind.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sparta.northwind.dtos.CustomerBatchResult;
+import com.sparta.northwind.dtos.CustomerCount;
 import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerPage;
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.dtos.CustomerSearchCriteria;
+import com.sparta.northwind.dtos.CustomerSuggestion;
 import com.sparta.northwind.entities.Customer;
+import com.sparta.northwind.services.CustomerChangeFeed;
+import com.sparta.northwind.services.CustomerExportService;
 import com.sparta.northwind.services.CustomerService;
+import com.sparta.northwind.services.CustomerStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,7 +24,13 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
@@ -20,12 +38,17 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +66,12 @@ class CustomerControllerTest {
     @MockitoBean
     private CustomerService customerService;
 
+    @MockitoBean
+    private CustomerExportService customerExportService;
+
+    @MockitoBean
+    private CustomerChangeFeed customerChangeFeed;
+
     private Customer testCustomer1;
     private Customer testCustomer2;
     private CustomerDto testCustomerDto1;
@@ -70,8 +99,9 @@ class CustomerControllerTest {
     @Test
     @DisplayName("Get all customers returns OK with customer list")
     void getAllCustomers_returnsOkWithList() throws Exception {
-        // Given: service will return a list of customer DTOs
-        when(customerService.getAllCustomer()).thenReturn(customerDtos);
+        // Given: service will return the last page of customer DTOs
+        when(customerService.getCustomerPage(null, CustomerService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CustomerPage(customerDtos, null));
 
         // Prepare the GET request
         MockHttpServletRequestBuilder request = get("/customers/");
@@ -83,13 +113,205 @@ class CustomerControllerTest {
         response.andExpect(status().isOk());
         response.andExpect(content().contentType(MediaType.APPLICATION_JSON));
         
-        // Verify response contains expected customer data
+        // Verify response contains expected customer data and no next cursor
         response.andExpect(jsonPath("$", hasSize(2)));
         response.andExpect(jsonPath("$[0].customerID", is("TEST1")));
         response.andExpect(jsonPath("$[1].customerID", is("TEST2")));
+        response.andExpect(header().doesNotExist(CustomerController.NEXT_CURSOR_HEADER));
 
-        // Verify service was called
-        verify(customerService).getAllCustomer();
+        // Verify service was called with the default page size
+        verify(customerService).getCustomerPage(null, CustomerService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("Get all customers returns next cursor when more pages exist")
+    void getAllCustomers_withMorePages_returnsNextCursor() throws Exception {
+        // Given: service will return a full page with a cursor to the next one
+        when(customerService.getCustomerPage("TEST0", 2)).thenReturn(new CustomerPage(customerDtos, "TEST2"));
+
+        // When: requesting a page after a cursor
+        ResultActions response = mockMvc.perform(get("/customers/").param("limit", "2").param("after", "TEST0"));
+
+        // Then: should return the page and point to the next one
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$", hasSize(2)));
+        response.andExpect(header().string(CustomerController.NEXT_CURSOR_HEADER, "TEST2"));
+        response.andExpect(header().string("Link", containsString("after=TEST2")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0", "-1", "1001"})
+    @DisplayName("Get all customers returns 400 when limit is out of bounds")
+    void getAllCustomers_invalidLimit_returnsBadRequest(String limit) throws Exception {
+        // When: requesting a page with an unbounded size
+        ResultActions response = mockMvc.perform(get("/customers/").param("limit", limit));
+
+        // Then: should return 400 Bad Request without touching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    @DisplayName("Export customers streams CSV as an attachment")
+    void exportCustomers_csv_streamsAttachment() throws Exception {
+        // Given: export service writes a CSV document to the response stream
+        when(customerExportService.exportCustomers(any(), eq(CustomerExportService.Format.CSV))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("customerID\nTEST1\n".getBytes());
+            return 1L;
+        });
+
+        // When: requesting a CSV export, the body is produced asynchronously
+        ResultActions started = mockMvc.perform(get("/customers/export").param("format", "CSV"));
+        started.andExpect(request().asyncStarted());
+        ResultActions response = mockMvc.perform(asyncDispatch(started.andReturn()));
+
+        // Then: should return the streamed rows as a CSV attachment
+        response.andExpect(status().isOk());
+        response.andExpect(header().string("Content-Type", "text/csv"));
+        response.andExpect(header().string("Content-Disposition", containsString("customers.csv")));
+        response.andExpect(header().doesNotExist("Content-Encoding"));
+        response.andExpect(content().string("customerID\nTEST1\n"));
+    }
+
+    @Test
+    @DisplayName("Export customers returns 400 for an unknown format")
+    void exportCustomers_unknownFormat_returnsBadRequest() throws Exception {
+        // When: requesting an unsupported export format
+        ResultActions response = mockMvc.perform(get("/customers/export").param("format", "xml"));
+
+        // Then: should return 400 Bad Request without starting the export
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerExportService);
+    }
+
+    @Test
+    @DisplayName("Search customers binds filters, paging and sort and links to the next page")
+    void searchCustomers_returnsSliceWithNextLink() throws Exception {
+        // Given: service finds a full page of customers in cities starting with "Lon"
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria(null, "Lon", null, null);
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by("companyName"));
+        when(customerService.searchCustomers(criteria, pageRequest)).thenReturn(new SliceImpl<>(customerDtos, pageRequest, true));
+
+        // When: searching by city prefix
+        ResultActions response = mockMvc.perform(get("/customers/search")
+                .param("city", "Lon").param("size", "2").param("sort", "companyName"));
+
+        // Then: should return the customers and point to the next page
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$", hasSize(2)));
+        response.andExpect(header().string(CustomerController.HAS_NEXT_HEADER, "true"));
+        response.andExpect(header().string("Link", containsString("page=1")));
+    }
+
+    @Test
+    @DisplayName("Search customers returns 400 when a filter is too long")
+    void searchCustomers_invalidFilter_returnsBadRequest() throws Exception {
+        // When: searching with a postal code longer than the column
+        ResultActions response = mockMvc.perform(get("/customers/search").param("postalCode", "12345678901"));
+
+        // Then: should reject the search before reaching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    @DisplayName("Suggest customers returns the matches for the typed prefix")
+    void suggestCustomers_returnsMatches() throws Exception {
+        // Given: service finds one company name starting with "tes"
+        when(customerService.suggestCustomers("tes", 5)).thenReturn(List.of(
+                new CustomerSuggestion("TEST1", "Test Company Ltd", CustomerSuggestion.Field.COMPANY_NAME)));
+
+        // When: asking for five suggestions
+        ResultActions response = mockMvc.perform(get("/customers/suggest").param("q", "tes").param("limit", "5"));
+
+        // Then: should return the suggestion
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$", hasSize(1)));
+        response.andExpect(jsonPath("$[0].customerID").value("TEST1"));
+        response.andExpect(jsonPath("$[0].field").value("COMPANY_NAME"));
+    }
+
+    @Test
+    @DisplayName("Suggest customers returns 400 when the limit is too large")
+    void suggestCustomers_limitTooLarge_returnsBadRequest() throws Exception {
+        // When: asking for more suggestions than allowed
+        ResultActions response = mockMvc.perform(get("/customers/suggest").param("q", "tes").param("limit", "1000"));
+
+        // Then: should reject the request before reaching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    @DisplayName("Customers per country are returned from the service's counters")
+    void getCustomersPerCountry_returnsCounts() throws Exception {
+        // Given: two customers in Germany and one with no country
+        when(customerService.countCustomersBy(CustomerStats.Dimension.COUNTRY)).thenReturn(List.of(
+                new CustomerCount("Germany", 2), new CustomerCount(null, 1)));
+
+        // When: asking for the counts
+        ResultActions response = mockMvc.perform(get("/customers/stats/countries"));
+
+        // Then: should return them as they are
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$", hasSize(2)));
+        response.andExpect(jsonPath("$[0].value").value("Germany"));
+        response.andExpect(jsonPath("$[0].customers").value(2));
+        response.andExpect(jsonPath("$[1].value").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Customer totals count the customers and the distinct values of each column")
+    void getCustomerStats_returnsTotals() throws Exception {
+        // Given: three customers in two countries, two cities and one region
+        when(customerService.countCustomers()).thenReturn(3L);
+        when(customerService.countCustomersBy(CustomerStats.Dimension.COUNTRY)).thenReturn(List.of(
+                new CustomerCount("Germany", 2), new CustomerCount("UK", 1)));
+        when(customerService.countCustomersBy(CustomerStats.Dimension.CITY)).thenReturn(List.of(
+                new CustomerCount("Berlin", 2), new CustomerCount("London", 1)));
+        when(customerService.countCustomersBy(CustomerStats.Dimension.REGION)).thenReturn(List.of(
+                new CustomerCount(null, 3)));
+
+        // When: asking for the totals
+        ResultActions response = mockMvc.perform(get("/customers/stats"));
+
+        // Then: should return each total
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$.customers").value(3));
+        response.andExpect(jsonPath("$.countries").value(2));
+        response.andExpect(jsonPath("$.cities").value(2));
+        response.andExpect(jsonPath("$.regions").value(1));
+    }
+
+    @Test
+    @DisplayName("Get customers by IDs returns the customers found for a comma-separated list")
+    void getCustomersByIds_returnsCustomers() throws Exception {
+        // Given: service finds two of the three requested customers
+        when(customerService.getCustomersByIds(List.of("TEST1", "DUMMY", "TEST2")))
+                .thenReturn(List.of(testCustomerDto1, testCustomerDto2));
+
+        // When: requesting them in one call
+        ResultActions response = mockMvc.perform(get("/customers").param("ids", "TEST1,DUMMY,TEST2"));
+
+        // Then: should return the two found customers
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$", hasSize(2)));
+        response.andExpect(jsonPath("$[0].customerID").value("TEST1"));
+        response.andExpect(jsonPath("$[1].customerID").value("TEST2"));
+    }
+
+    @Test
+    @DisplayName("Get customers by IDs returns 400 when too many IDs are requested")
+    void getCustomersByIds_tooMany_returnsBadRequest() throws Exception {
+        // Given: one more ID than allowed
+        String ids = String.join(",", Collections.nCopies(CustomerService.MAX_MULTI_GET_SIZE + 1, "TEST1"));
+
+        // When: requesting them
+        ResultActions response = mockMvc.perform(get("/customers/").param("ids", ids));
+
+        // Then: should reject the request before reaching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
     }
 
     @Test
@@ -117,6 +339,163 @@ class CustomerControllerTest {
         verify(customerService).getCustomerByID(customerId);
     }
 
+    @Test
+    @DisplayName("Get customer by ID returns 304 when If-None-Match matches the ETag")
+    void getCustomerById_matchingETag_returnsNotModified() throws Exception {
+        // Given: a client that already fetched the customer
+        when(customerService.getCustomerByID("TEST1")).thenReturn(testCustomerDto1);
+        String etag = mockMvc.perform(get("/customers/TEST1"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When: revalidating with the ETag
+        ResultActions response = mockMvc.perform(get("/customers/TEST1").header("If-None-Match", etag));
+
+        // Then: should return 304 with no body
+        response.andExpect(status().isNotModified());
+        response.andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Get customer by ID returns a new ETag when the customer changed")
+    void getCustomerById_changedCustomer_returnsNewETag() throws Exception {
+        // Given: a client holding the ETag of an older version of the customer
+        when(customerService.getCustomerByID("TEST1")).thenReturn(testCustomerDto1);
+        String etag = mockMvc.perform(get("/customers/TEST1")).andReturn().getResponse().getHeader("ETag");
+        when(customerService.getCustomerByID("TEST1")).thenReturn(new CustomerDto("TEST1", "Renamed Ltd", "Test User", null));
+
+        // When: revalidating with the old ETag
+        ResultActions response = mockMvc.perform(get("/customers/TEST1").header("If-None-Match", etag));
+
+        // Then: should return the updated customer
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$.companyName", is("Renamed Ltd")));
+        response.andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    @DisplayName("Get all customers returns 304 when the page is unchanged, and a new ETag once it changes")
+    void getAllCustomers_matchingETag_returnsNotModified() throws Exception {
+        // Given: a client holding the ETag of the first page
+        when(customerService.getCustomerPage(null, CustomerService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CustomerPage(customerDtos, null));
+        String etag = mockMvc.perform(get("/customers/")).andReturn().getResponse().getHeader("ETag");
+
+        // When: revalidating with it while the page is unchanged
+        ResultActions response = mockMvc.perform(get("/customers/").header("If-None-Match", etag));
+
+        // Then: should return 304 with no body
+        response.andExpect(status().isNotModified());
+        response.andExpect(content().string(""));
+
+        // When: a customer on the page is renamed, by this or any other instance, and the client revalidates
+        when(customerService.getCustomerPage(null, CustomerService.DEFAULT_PAGE_SIZE)).thenReturn(new CustomerPage(
+                List.of(new CustomerDto("TEST1", "Renamed Ltd", "Test User", "London"), customerDtos.get(1)), null));
+        ResultActions changed = mockMvc.perform(get("/customers/").header("If-None-Match", etag));
+
+        // Then: the page is sent again under a new tag
+        changed.andExpect(status().isOk());
+        changed.andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    @DisplayName("Get all customers answers Accept: application/cbor with a CBOR list and its own ETag")
+    void getAllCustomers_acceptCbor_returnsCbor() throws Exception {
+        // Given: the last page of customers
+        when(customerService.getCustomerPage(null, CustomerService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CustomerPage(customerDtos, null));
+        String jsonETag = mockMvc.perform(get("/customers/")).andReturn().getResponse().getHeader("ETag");
+
+        // When: an internal caller asks for CBOR
+        ResultActions response = mockMvc.perform(get("/customers/").accept(MediaType.APPLICATION_CBOR));
+
+        // Then: the body is CBOR, and the tag differs from the JSON representation's
+        response.andExpect(status().isOk());
+        response.andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        response.andExpect(header().string("ETag", jsonETag.substring(0, jsonETag.length() - 1) + "-cbor\""));
+        response.andExpect(header().string("Vary", containsString("Accept")));
+        JsonNode customers = new CBORMapper().readTree(response.andReturn().getResponse().getContentAsByteArray());
+        assertThat(customers.size(), is(2));
+        assertThat(customers.get(1).get("customerID").asText(), is("TEST2"));
+    }
+
+    @Test
+    @DisplayName("Get all customers answers Accept: application/x-protobuf with a CustomerList message")
+    void getAllCustomers_acceptProtobuf_returnsProtobuf() throws Exception {
+        // Given: the last page of customers
+        when(customerService.getCustomerPage(null, CustomerService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CustomerPage(customerDtos, null));
+
+        // When: an internal caller asks for Protobuf
+        ResultActions response = mockMvc.perform(get("/customers/").accept(CustomerProtobufHttpMessageConverter.PROTOBUF));
+
+        // Then: the body decodes to the same customers
+        response.andExpect(status().isOk());
+        response.andExpect(content().contentType(CustomerProtobufHttpMessageConverter.PROTOBUF));
+        byte[] body = response.andReturn().getResponse().getContentAsByteArray();
+        Object customers = new CustomerProtobufHttpMessageConverter().read(
+                new ParameterizedTypeReference<List<CustomerDto>>() {}.getType(), null, new MockHttpInputMessage(body));
+        assertThat(customers, is(customerDtos));
+    }
+
+    @Test
+    @DisplayName("Get customer by ID answers Accept: application/x-protobuf with a Customer message")
+    void getCustomerById_acceptProtobuf_returnsProtobuf() throws Exception {
+        // Given: an existing customer
+        when(customerService.getCustomerByID("TEST1")).thenReturn(testCustomerDto1);
+
+        // When: an internal caller asks for Protobuf
+        ResultActions response = mockMvc.perform(get("/customers/TEST1").accept(CustomerProtobufHttpMessageConverter.PROTOBUF));
+
+        // Then: the body decodes to the customer and the tag is specific to Protobuf
+        response.andExpect(status().isOk());
+        response.andExpect(content().contentType(CustomerProtobufHttpMessageConverter.PROTOBUF));
+        response.andExpect(header().string("ETag", endsWith("-x-protobuf\"")));
+        byte[] body = response.andReturn().getResponse().getContentAsByteArray();
+        Object customer = new CustomerProtobufHttpMessageConverter().read(CustomerDto.class, null, new MockHttpInputMessage(body));
+        assertThat(customer, is(testCustomerDto1));
+    }
+
+    @Test
+    @DisplayName("Add customer accepts a Smile body and answers in Smile")
+    void addCustomer_smileBody_returnsCreated() throws Exception {
+        // Given: the service saves the customer
+        when(customerService.createCustomer(testCustomerDto1)).thenReturn(testCustomerDto1);
+        SmileMapper smileMapper = new SmileMapper();
+
+        // When: posting the customer as Smile
+        ResultActions response = mockMvc.perform(post("/customers")
+                .contentType("application/x-jackson-smile")
+                .accept("application/x-jackson-smile")
+                .content(smileMapper.writeValueAsBytes(testCustomerDto1)));
+
+        // Then: the body was bound like JSON and the response is Smile
+        response.andExpect(status().isCreated());
+        response.andExpect(content().contentType("application/x-jackson-smile"));
+        JsonNode customer = smileMapper.readTree(response.andReturn().getResponse().getContentAsByteArray());
+        assertThat(customer.get("companyName").asText(), is("Test Company Ltd"));
+        verify(customerService).createCustomer(testCustomerDto1);
+    }
+
+    @Test
+    @DisplayName("Update customer accepts a Protobuf body")
+    void updateCustomer_protobufBody_returnsOk() throws Exception {
+        // Given: the service updates the customer
+        CustomerDto updated = new CustomerDto("TEST1", "Renamed Ltd", "Test User", null);
+        when(customerService.updateCustomer(updated)).thenReturn(updated);
+        MockHttpOutputMessage body = new MockHttpOutputMessage();
+        new CustomerProtobufHttpMessageConverter().write(updated, CustomerProtobufHttpMessageConverter.PROTOBUF, body);
+
+        // When: putting the customer as Protobuf
+        ResultActions response = mockMvc.perform(put("/customers/TEST1")
+                .contentType(CustomerProtobufHttpMessageConverter.PROTOBUF)
+                .content(body.getBodyAsBytes()));
+
+        // Then: the decoded customer reached the service
+        response.andExpect(status().is2xxSuccessful());
+        verify(customerService).updateCustomer(updated);
+    }
+
     @Test
     @DisplayName("Get customer by ID returns 404 when customer not found")
     void getCustomerById_notFound_returns404() throws Exception {
@@ -191,4 +570,153 @@ class CustomerControllerTest {
         // Verify service was called
         verify(customerService).createCustomer(any(CustomerDto.class));
     }
+
+    @Test
+    @DisplayName("Add customers in batch returns a result per customer")
+    void addCustomers_returnsResultPerCustomer() throws Exception {
+        // Given: one customer is created and one already exists
+        when(customerService.createCustomers(customerDtos)).thenReturn(List.of(
+                CustomerBatchResult.created("TEST1"),
+                CustomerBatchResult.conflict("TEST2")));
+
+        // When: posting both customers as a batch
+        ResultActions response = mockMvc.perform(post("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customerDtos)));
+
+        // Then: should report the outcome of each customer
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$", hasSize(2)));
+        response.andExpect(jsonPath("$[0].status", is("CREATED")));
+        response.andExpect(jsonPath("$[1].customerID", is("TEST2")));
+        response.andExpect(jsonPath("$[1].status", is("CONFLICT")));
+    }
+
+    @Test
+    @DisplayName("Add customers in batch reads a Protobuf list and answers with Protobuf results")
+    void addCustomers_protobufBody_returnsProtobufResults() throws Exception {
+        // Given: both customers are created
+        when(customerService.createCustomers(customerDtos)).thenReturn(List.of(
+                CustomerBatchResult.created("TEST1"),
+                CustomerBatchResult.created("TEST2")));
+        CustomerProtobufHttpMessageConverter converter = new CustomerProtobufHttpMessageConverter();
+        MockHttpOutputMessage body = new MockHttpOutputMessage();
+        converter.write(customerDtos, new ParameterizedTypeReference<List<CustomerDto>>() {}.getType(),
+                CustomerProtobufHttpMessageConverter.PROTOBUF, body);
+
+        // When: posting the batch as Protobuf
+        ResultActions response = mockMvc.perform(post("/customers/batch")
+                .contentType(CustomerProtobufHttpMessageConverter.PROTOBUF)
+                .accept(CustomerProtobufHttpMessageConverter.PROTOBUF)
+                .content(body.getBodyAsBytes()));
+
+        // Then: the list was decoded for the service and the results are Protobuf
+        response.andExpect(status().isOk());
+        response.andExpect(content().contentType(CustomerProtobufHttpMessageConverter.PROTOBUF));
+        verify(customerService).createCustomers(customerDtos);
+    }
+
+    @Test
+    @DisplayName("Add customers in batch returns 400 when a customer is invalid")
+    void addCustomers_invalidCustomer_returnsBadRequest() throws Exception {
+        // Given: a batch containing a customer without an ID
+        List<CustomerDto> invalidBatch = List.of(testCustomerDto1, new CustomerDto("", "No ID Ltd", null, null));
+
+        // When: posting the batch
+        ResultActions response = mockMvc.perform(post("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidBatch)));
+
+        // Then: should reject the whole batch before reaching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    @DisplayName("Delete customer returns 204 when customer was deleted")
+    void deleteCustomer_success_returnsNoContent() throws Exception {
+        // Given: service deletes the customer
+        when(customerService.deleteCustomerById("TEST1")).thenReturn(true);
+
+        // When: deleting the customer
+        ResultActions response = mockMvc.perform(delete("/customers/TEST1"));
+
+        // Then: should return 204 No Content
+        response.andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Delete customers in batch returns the number deleted")
+    void deleteCustomers_returnsDeletedCount() throws Exception {
+        // Given: service deletes two of the three customers
+        List<String> ids = List.of("TEST1", "TEST2", "DUMMY");
+        when(customerService.deleteCustomersByIds(ids)).thenReturn(2);
+
+        // When: deleting the customers in one request
+        ResultActions response = mockMvc.perform(delete("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids)));
+
+        // Then: should report how many customers existed
+        response.andExpect(status().isOk());
+        response.andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @Test
+    @DisplayName("Delete customers in batch returns 400 when an ID is too long")
+    void deleteCustomers_invalidId_returnsBadRequest() throws Exception {
+        // When: deleting with an ID longer than five characters
+        ResultActions response = mockMvc.perform(delete("/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of("TEST1", "TOOLONG"))));
+
+        // Then: should reject the request before reaching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
+
+    @Test
+    @DisplayName("Patch customer returns 204 when the customer was updated")
+    void patchCustomer_success_returnsNoContent() throws Exception {
+        // Given: service applies the patch
+        CustomerPatchDto patch = new CustomerPatchDto(null, null, null, null, "Leeds", null, null, null, null, null);
+        when(customerService.patchCustomer("TEST1", patch)).thenReturn(true);
+
+        // When: sending only the city
+        ResultActions response = mockMvc.perform(patch("/customers/TEST1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"city\":\"Leeds\"}"));
+
+        // Then: should return 204 No Content
+        response.andExpect(status().isNoContent());
+        verify(customerService).patchCustomer("TEST1", patch);
+    }
+
+    @Test
+    @DisplayName("Patch customer returns 404 when the customer does not exist")
+    void patchCustomer_notFound_returns404() throws Exception {
+        // Given: service finds no row to update
+        when(customerService.patchCustomer(any(), any(CustomerPatchDto.class))).thenReturn(false);
+
+        // When: patching a non-existent customer
+        ResultActions response = mockMvc.perform(patch("/customers/DUMMY")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"city\":\"Leeds\"}"));
+
+        // Then: should return 404 Not Found
+        response.andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Patch customer returns 400 when a field is too long")
+    void patchCustomer_invalidField_returnsBadRequest() throws Exception {
+        // When: sending a postal code longer than the column
+        ResultActions response = mockMvc.perform(patch("/customers/TEST1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"postalCode\":\"12345678901\"}"));
+
+        // Then: should reject the patch before reaching the service
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(customerService);
+    }
 }
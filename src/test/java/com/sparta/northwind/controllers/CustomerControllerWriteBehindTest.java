@@ -0,0 +1,105 @@
+package com.sparta.northwind.controllers;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.services.CustomerChangeFeed;
+import com.sparta.northwind.services.CustomerExportService;
+import com.sparta.northwind.services.CustomerService;
+import com.sparta.northwind.services.CustomerWriteBehindQueue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * PUT /customers/{id} with write-behind enabled, which CustomerControllerTest covers with it disabled, and how
+ * DELETE and PATCH deal with updates still queued.
+ */
+@WebMvcTest(controllers = CustomerController.class)
+class CustomerControllerWriteBehindTest {
+
+    private static final String BODY = "{\"customerID\":\"OTHER\",\"companyName\":\"Test Company Ltd\",\"contactName\":\"Test User\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CustomerService customerService;
+
+    @MockitoBean
+    private CustomerExportService customerExportService;
+
+    @MockitoBean
+    private CustomerChangeFeed customerChangeFeed;
+
+    @MockitoBean
+    private CustomerWriteBehindQueue writeBehindQueue;
+
+    @Test
+    @DisplayName("A queued update is acknowledged with 202 and not written synchronously")
+    void testUpdateCustomer_Queued() throws Exception {
+        // Given: the queue has room
+        when(writeBehindQueue.offer(any(CustomerDto.class))).thenReturn(true);
+
+        // When / Then: the update is accepted with the path ID
+        mockMvc.perform(put("/customers/TEST1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.customerID").value("TEST1"));
+        verify(writeBehindQueue).offer(new CustomerDto("TEST1", "Test Company Ltd", "Test User", null));
+        verify(customerService, never()).updateCustomer(any());
+    }
+
+    @Test
+    @DisplayName("A full queue answers 503 with Retry-After")
+    void testUpdateCustomer_QueueFull() throws Exception {
+        // Given: the queue refuses the update
+        when(writeBehindQueue.offer(any(CustomerDto.class))).thenReturn(false);
+
+        // When / Then: the caller is told to come back
+        mockMvc.perform(put("/customers/TEST1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", CustomerController.WRITE_BEHIND_RETRY_AFTER_SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deleting a customer first drops its queued update, so a later flush cannot bring it back")
+    void testDeleteCustomer_DiscardsQueuedUpdate() throws Exception {
+        // Given: the delete removes the customer
+        when(customerService.deleteCustomerById("TEST1")).thenReturn(true);
+
+        // When / Then: the queued update is discarded before the delete
+        mockMvc.perform(delete("/customers/TEST1")).andExpect(status().isNoContent());
+        InOrder order = inOrder(writeBehindQueue, customerService);
+        order.verify(writeBehindQueue).discard(List.of("TEST1"));
+        order.verify(customerService).deleteCustomerById("TEST1");
+    }
+
+    @Test
+    @DisplayName("Patching a customer first writes its queued update, so the patch applies on top of it")
+    void testPatchCustomer_FlushesQueuedUpdate() throws Exception {
+        // Given: the patch changes the customer
+        when(customerService.patchCustomer(any(), any())).thenReturn(true);
+
+        // When / Then: the queued update is written before the patch
+        mockMvc.perform(patch("/customers/TEST1").contentType(MediaType.APPLICATION_JSON).content("{\"phone\":\"555-0100\"}"))
+                .andExpect(status().isNoContent());
+        InOrder order = inOrder(writeBehindQueue, customerService);
+        order.verify(writeBehindQueue).flush(List.of("TEST1"));
+        order.verify(customerService).patchCustomer(any(), any());
+    }
+}
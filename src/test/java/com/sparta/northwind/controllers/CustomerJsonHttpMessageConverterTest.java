@@ -0,0 +1,80 @@
+package com.sparta.northwind.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.northwind.dtos.CustomerDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerJsonHttpMessageConverterTest {
+
+    private static final Type CUSTOMER_LIST = new ParameterizedTypeReference<List<CustomerDto>>() {}.getType();
+
+    // Using obviously fake test data, with the characters JSON has to escape
+    private static final List<CustomerDto> CUSTOMERS = List.of(
+            new CustomerDto("TEST1", "Test Company Ltd", "Test User", "London"),
+            new CustomerDto("TEST2", "Mock \"Quoted\" \\ Corp", null, null),
+            new CustomerDto("TEST3", "Tab\tNew\nLine\u0001</script>", "Zoë Ünïcödé", "São Paulo"),
+            new CustomerDto("TEST4", "Emoji 😀 Ltd", "", "México D.F."));
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final CustomerJsonHttpMessageConverter converter = new CustomerJsonHttpMessageConverter(objectMapper);
+
+    @Test
+    @DisplayName("A customer list is written byte for byte like the golden file")
+    void testWriteList_MatchesGoldenFile() throws Exception {
+        // Given: the JSON the Jackson converter produced for the fixture
+        byte[] golden = new ClassPathResource("golden/customers.json").getContentAsByteArray();
+
+        // When: writing the list with the hand-written converter
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(CUSTOMERS, CUSTOMER_LIST, MediaType.APPLICATION_JSON, output);
+
+        // Then: the bytes are identical
+        assertArrayEquals(golden, output.getBodyAsBytes());
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+    }
+
+    @Test
+    @DisplayName("Lists and single customers are written exactly like the Jackson converter writes them")
+    void testWrite_MatchesJacksonConverter() throws Exception {
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+
+        assertArrayEquals(write(jackson, CUSTOMERS, CUSTOMER_LIST), write(converter, CUSTOMERS, CUSTOMER_LIST));
+        assertArrayEquals(write(jackson, List.of(), CUSTOMER_LIST), write(converter, List.of(), CUSTOMER_LIST));
+        for (CustomerDto customer : CUSTOMERS) {
+            assertArrayEquals(write(jackson, customer, CustomerDto.class), write(converter, customer, CustomerDto.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Only customer types are claimed, and never for reading")
+    void testSupportedTypes() {
+        assertTrue(converter.canWrite(CUSTOMER_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(CustomerDto.class, CustomerDto.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(CUSTOMER_LIST, List.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<Map<String, Integer>>() {}.getType(), Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(), List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(CustomerDto.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(CustomerDto.class, null, MediaType.APPLICATION_JSON));
+    }
+
+    private static byte[] write(GenericHttpMessageConverter<Object> converter,
+                                Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+}
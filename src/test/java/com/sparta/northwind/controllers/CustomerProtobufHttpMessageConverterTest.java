@@ -0,0 +1,177 @@
+package com.sparta.northwind.controllers;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.sparta.northwind.dtos.CustomerBatchResult;
+import com.sparta.northwind.dtos.CustomerDto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerProtobufHttpMessageConverterTest {
+
+    private static final Type CUSTOMER_LIST = new ParameterizedTypeReference<List<CustomerDto>>() {}.getType();
+    private static final Type RESULT_LIST = new ParameterizedTypeReference<List<CustomerBatchResult>>() {}.getType();
+
+    // Using obviously fake test data, with nulls, an empty string and multi-byte characters
+    private static final List<CustomerDto> CUSTOMERS = List.of(
+            new CustomerDto("TEST1", "Test Company Ltd", "Test User", "London"),
+            new CustomerDto("TEST2", "Mock Corp", null, null),
+            new CustomerDto("TEST3", "Emoji 😀 Ltd", "", "São Paulo"));
+
+    private static Descriptors.Descriptor customerList;
+    private static Descriptors.Descriptor batchResultList;
+
+    private final CustomerProtobufHttpMessageConverter converter = new CustomerProtobufHttpMessageConverter();
+
+    /**
+     * The messages of customers.proto, built at runtime so the hand-written encoding is checked against protobuf's
+     * own parser. Declared as proto2 optional fields, which have the same wire format and presence as proto3 optional.
+     */
+    @BeforeAll
+    static void buildDescriptors() throws Descriptors.DescriptorValidationException {
+        FileDescriptorProto file = FileDescriptorProto.newBuilder()
+                .setName("customers.proto")
+                .setPackage("northwind")
+                .addMessageType(DescriptorProto.newBuilder().setName("Customer")
+                        .addField(stringField("customer_id", 1))
+                        .addField(stringField("company_name", 2))
+                        .addField(stringField("contact_name", 3))
+                        .addField(stringField("city", 4)))
+                .addMessageType(DescriptorProto.newBuilder().setName("CustomerList")
+                        .addField(repeatedField("customers", ".northwind.Customer")))
+                .addMessageType(DescriptorProto.newBuilder().setName("CustomerBatchResult")
+                        .addEnumType(EnumDescriptorProto.newBuilder().setName("Status")
+                                .addValue(EnumValueDescriptorProto.newBuilder().setName("STATUS_UNSPECIFIED").setNumber(0))
+                                .addValue(EnumValueDescriptorProto.newBuilder().setName("CREATED").setNumber(1))
+                                .addValue(EnumValueDescriptorProto.newBuilder().setName("CONFLICT").setNumber(2)))
+                        .addField(stringField("customer_id", 1))
+                        .addField(FieldDescriptorProto.newBuilder().setName("status").setNumber(2)
+                                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                                .setType(FieldDescriptorProto.Type.TYPE_ENUM)
+                                .setTypeName(".northwind.CustomerBatchResult.Status")))
+                .addMessageType(DescriptorProto.newBuilder().setName("CustomerBatchResultList")
+                        .addField(repeatedField("results", ".northwind.CustomerBatchResult")))
+                .build();
+        Descriptors.FileDescriptor descriptor = Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]);
+        customerList = descriptor.findMessageTypeByName("CustomerList");
+        batchResultList = descriptor.findMessageTypeByName("CustomerBatchResultList");
+    }
+
+    @Test
+    @DisplayName("A customer list is written as a CustomerList message that protobuf itself can parse")
+    void testWriteList_ParsesWithProtobuf() throws Exception {
+        // When: writing the fixture
+        byte[] body = write(CUSTOMERS, CUSTOMER_LIST);
+
+        // Then: protobuf sees the same customers, with nulls absent and the empty string present
+        DynamicMessage message = DynamicMessage.parseFrom(customerList, body);
+        Descriptors.FieldDescriptor customers = customerList.findFieldByName("customers");
+        assertEquals(3, message.getRepeatedFieldCount(customers));
+        DynamicMessage second = (DynamicMessage) message.getRepeatedField(customers, 1);
+        assertEquals("Mock Corp", second.getField(second.getDescriptorForType().findFieldByName("company_name")));
+        assertFalse(second.hasField(second.getDescriptorForType().findFieldByName("city")));
+        DynamicMessage third = (DynamicMessage) message.getRepeatedField(customers, 2);
+        assertEquals("Emoji 😀 Ltd", third.getField(third.getDescriptorForType().findFieldByName("company_name")));
+        assertTrue(third.hasField(third.getDescriptorForType().findFieldByName("contact_name")));
+        assertTrue(message.getUnknownFields().asMap().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lists and single customers read back exactly as they were written")
+    void testRoundTrip() throws Exception {
+        assertEquals(CUSTOMERS, read(CUSTOMER_LIST, write(CUSTOMERS, CUSTOMER_LIST)));
+        assertEquals(List.of(), read(CUSTOMER_LIST, write(List.of(), CUSTOMER_LIST)));
+        for (CustomerDto customer : CUSTOMERS) {
+            assertEquals(customer, read(CustomerDto.class, write(customer, CustomerDto.class)));
+        }
+    }
+
+    @Test
+    @DisplayName("Fields from a newer schema are skipped and a truncated body is rejected")
+    void testRead_UnknownFieldsAndTruncatedBody() throws Exception {
+        // Given: a customer carrying an extra varint and an extra string field
+        byte[] known = write(CUSTOMERS.get(0), CustomerDto.class);
+        byte[] body = Arrays.copyOf(known, known.length + 7);
+        System.arraycopy(new byte[]{5 << 3, 42, 6 << 3 | 2, 3, 'n', 'e', 'w'}, 0, body, known.length, 7);
+
+        // When / Then: the customer is read as if the extra fields were not there
+        assertEquals(CUSTOMERS.get(0), read(CustomerDto.class, body));
+
+        // When / Then: a list cut off in the middle of a customer is a bad request
+        byte[] list = write(CUSTOMERS, CUSTOMER_LIST);
+        assertThrows(HttpMessageNotReadableException.class, () -> read(CUSTOMER_LIST, Arrays.copyOf(list, list.length - 3)));
+    }
+
+    @Test
+    @DisplayName("Batch results are written as a CustomerBatchResultList message")
+    void testWriteBatchResults() throws Exception {
+        // When: writing one created and one conflicting customer
+        byte[] body = write(List.of(CustomerBatchResult.created("TEST1"), CustomerBatchResult.conflict("TEST2")), RESULT_LIST);
+
+        // Then: protobuf reads the IDs and statuses
+        DynamicMessage message = DynamicMessage.parseFrom(batchResultList, body);
+        Descriptors.FieldDescriptor results = batchResultList.findFieldByName("results");
+        DynamicMessage conflict = (DynamicMessage) message.getRepeatedField(results, 1);
+        Descriptors.Descriptor resultType = conflict.getDescriptorForType();
+        assertEquals("TEST2", conflict.getField(resultType.findFieldByName("customer_id")));
+        assertEquals("CONFLICT", ((Descriptors.EnumValueDescriptor) conflict.getField(resultType.findFieldByName("status"))).getName());
+    }
+
+    @Test
+    @DisplayName("Only customer types and batch results are claimed, and batch results only for writing")
+    void testSupportedTypes() {
+        assertTrue(converter.canRead(CUSTOMER_LIST, null, CustomerProtobufHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canRead(CustomerDto.class, null, CustomerProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canRead(RESULT_LIST, null, CustomerProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canRead(new ParameterizedTypeReference<Set<CustomerDto>>() {}.getType(), null,
+                CustomerProtobufHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(RESULT_LIST, List.class, CustomerProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(CUSTOMER_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(), List.class,
+                CustomerProtobufHttpMessageConverter.PROTOBUF));
+    }
+
+    private byte[] write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, type, CustomerProtobufHttpMessageConverter.PROTOBUF, output);
+        assertEquals(CustomerProtobufHttpMessageConverter.PROTOBUF, output.getHeaders().getContentType());
+        return output.getBodyAsBytes();
+    }
+
+    private Object read(Type type, byte[] body) throws Exception {
+        return converter.read(type, null, new MockHttpInputMessage(body));
+    }
+
+    private static FieldDescriptorProto stringField(String name, int number) {
+        return FieldDescriptorProto.newBuilder().setName(name).setNumber(number)
+                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                .setType(FieldDescriptorProto.Type.TYPE_STRING)
+                .build();
+    }
+
+    private static FieldDescriptorProto repeatedField(String name, String typeName) {
+        return FieldDescriptorProto.newBuilder().setName(name).setNumber(1)
+                .setLabel(FieldDescriptorProto.Label.LABEL_REPEATED)
+                .setType(FieldDescriptorProto.Type.TYPE_MESSAGE)
+                .setTypeName(typeName)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.sparta.northwind.datasource;
+
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.services.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the application against two separate in-memory H2 databases, one as the primary and one as the replica.
+ * Hibernate creates the table on the primary and replica-schema.sql on the replica. Nothing copies rows between
+ * them, so which pool answered a read shows in the data it returns.
+ * The customers cache and Hibernate's caches are off, so every read reaches a pool.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS northwind",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "northwind.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "spring.cache.type=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.update("delete from northwind.customers");
+        replica.update("delete from northwind.customers");
+        // Using obviously fake test data, named after the database holding it
+        primary.update("insert into northwind.customers (CustomerID, CompanyName) values ('TEST1', 'Primary Ltd')");
+        replica.update("insert into northwind.customers (CustomerID, CompanyName) values ('TEST1', 'Replica Ltd')");
+    }
+
+    @Test
+    @DisplayName("Read-only service methods are served by the replica and writes by the primary")
+    void testRouting_ReadsToReplicaWritesToPrimary() {
+        // Given: the connection counts so far
+        double replicaReads = connections(ReadWriteRoutingDataSource.REPLICA, true);
+        double primaryWrites = connections(ReadWriteRoutingDataSource.PRIMARY, false);
+
+        // When: reading and then patching the customer
+        String readName = customerService.getCustomerByID("TEST1").getCompanyName();
+        int allCustomers = customerService.getAllCustomer().size();
+        customerService.patchCustomer("TEST1", new CustomerPatchDto("Patched Ltd", null, null, null, null, null, null, null, null, null));
+
+        // Then: the reads came from the replica and only the primary was changed
+        assertEquals("Replica Ltd", readName);
+        assertEquals(1, allCustomers);
+        assertEquals("Patched Ltd", companyName(primary, "TEST1"));
+        assertEquals("Replica Ltd", companyName(replica, "TEST1"));
+        assertEquals(replicaReads + 2, connections(ReadWriteRoutingDataSource.REPLICA, true));
+        assertEquals(primaryWrites + 1, connections(ReadWriteRoutingDataSource.PRIMARY, false));
+    }
+
+    @Test
+    @DisplayName("A client that has just written reads from the primary until its window runs out")
+    void testReadYourWrites_CookiePinsReadsToPrimary() throws Exception {
+        // When: creating a customer the replica will never see
+        MvcResult created = mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerID\":\"TEST2\",\"companyName\":\"Mock Corp\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie cookie = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        double pinnedReads = connections(ReadWriteRoutingDataSource.PRIMARY, true);
+
+        // Then: the writer finds it on the primary
+        mockMvc.perform(get("/customers/TEST2").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companyName").value("Mock Corp"));
+        assertEquals(pinnedReads + 1, connections(ReadWriteRoutingDataSource.PRIMARY, true));
+
+        // Then: other clients, and the writer once the window has passed, read the replica
+        mockMvc.perform(get("/customers/TEST2"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/customers/TEST2").cookie(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                        String.valueOf(System.currentTimeMillis() - 1))))
+                .andExpect(status().isNotFound());
+    }
+
+    private double connections(String pool, boolean readOnly) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.METRIC_NAME)
+                .tag("pool", pool)
+                .tag("read.only", String.valueOf(readOnly))
+                .counter()
+                .count();
+    }
+
+    private static String companyName(JdbcTemplate jdbcTemplate, String id) {
+        return jdbcTemplate.queryForObject("select CompanyName from northwind.customers where CustomerID = ?", String.class, id);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sparta.northwind.perf;
+
+import com.sparta.northwind.entities.Customer;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerDataGeneratorTest {
+
+    private final CustomerDataGenerator generator = new CustomerDataGenerator(42);
+
+    @Test
+    @DisplayName("Customer IDs are five-character base-36 strings in index order")
+    void testCustomerId() {
+        assertEquals("00000", CustomerDataGenerator.customerId(0));
+        assertEquals("0000Z", CustomerDataGenerator.customerId(35));
+        assertEquals("00010", CustomerDataGenerator.customerId(36));
+        assertEquals("ZZZZZ", CustomerDataGenerator.customerId(CustomerDataGenerator.MAX_CUSTOMERS - 1));
+        assertThrows(IllegalArgumentException.class, () -> CustomerDataGenerator.customerId(CustomerDataGenerator.MAX_CUSTOMERS));
+    }
+
+    @Test
+    @DisplayName("The same seed and index always produce the same customer")
+    void testDeterministic() {
+        Customer first = generator.customer(12345);
+        Customer second = new CustomerDataGenerator(42).customer(12345);
+        assertEquals(first.toString(), second.toString());
+        assertNotEquals(first.toString(), new CustomerDataGenerator(7).customer(12345).toString());
+    }
+
+    @Test
+    @DisplayName("Generated customers satisfy the entity's column constraints")
+    void testFitsColumns() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        for (long i = 0; i < 10_000; i++) {
+            Customer customer = generator.customer(i * 6047);
+            assertTrue(validator.validate(customer).isEmpty(), () -> "Invalid generated customer " + customer);
+        }
+    }
+
+    @Test
+    @DisplayName("Cities are skewed: the most common city holds far more customers than the median one")
+    void testCitySkew() {
+        // Given: a sample of generated customers
+        Map<String, Integer> customersPerCity = new HashMap<>();
+        for (long i = 0; i < 100_000; i++) {
+            customersPerCity.merge(generator.customer(i).getCity(), 1, Integer::sum);
+        }
+
+        // Then: London, rank one, dominates while every city is still represented
+        int london = customersPerCity.get("London");
+        int median = customersPerCity.values().stream().sorted().toList().get(customersPerCity.size() / 2);
+        assertTrue(london > 10 * median, "London " + london + ", median " + median);
+        assertTrue(london < 30_000, "London " + london);
+    }
+}
@@ -0,0 +1,52 @@
+package com.sparta.northwind.perf;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the JPA layer with the perf profile against an in-memory copy of its H2 database, so the seeder
+ * runs at startup against the schema Hibernate generates from the entity.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("perf")
+@Import(PerfDataSeeder.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:perf-seeder;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS northwind",
+        "northwind.perf.customers=12345",
+        "northwind.perf.batch-size=1000",
+        "northwind.perf.threads=2"
+})
+class PerfDataSeederTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PerfDataSeeder seeder;
+
+    @Test
+    @DisplayName("Startup seeding fills the customers table with the configured number of generated customers")
+    void testSeededAtStartup() throws Exception {
+        // Then: every generated customer is there and readable through the repository
+        assertEquals(12345, customerRepository.count());
+        CustomerDto last = customerRepository.findDtoById(CustomerDataGenerator.customerId(12344)).orElseThrow();
+        assertEquals(new CustomerDataGenerator(42).customer(12344).getCompanyName(), last.getCompanyName());
+
+        // When: the seeder runs again
+        seeder.run(null);
+
+        // Then: the non-empty table is left alone
+        assertEquals(12345, customerRepository.count());
+    }
+}
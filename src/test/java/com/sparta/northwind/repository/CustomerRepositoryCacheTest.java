@@ -0,0 +1,159 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerMapperImpl;
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.entities.Customer;
+import com.sparta.northwind.services.CustomerLookupBatcher;
+import com.sparta.northwind.services.CustomerService;
+import com.sparta.northwind.services.CustomerStats;
+import com.sparta.northwind.services.CustomerSuggestIndex;
+import com.sparta.northwind.services.SingleFlight;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repository against H2 with the second-level and query cache settings from application.properties.
+ * Each repository call is its own transaction, as in the service, so reads only skip SQL when a cache answers them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:customer-cache;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS northwind")
+class CustomerRepositoryCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAllInBatch();
+        customerRepository.save(customer("TEST1", "Test Company Ltd"));
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Repeated reads of the same customer through the service issue no SQL")
+    void testGetCustomerByID_SecondReadIssuesNoSql() {
+        // Given: the service built without Spring's customers cache around it, and the customer read once
+        CustomerService customerService = new CustomerService(customerRepository, new CustomerMapperImpl(),
+                new CustomerSuggestIndex(customerRepository, transactionManager), event -> { }, new SingleFlight<>(),
+                new CustomerLookupBatcher(customerRepository, false, Duration.ZERO, 1),
+                new CustomerStats(customerRepository, Duration.ofMinutes(5)));
+        customerService.getCustomerByID("TEST1");
+        long statements = statistics.getPrepareStatementCount();
+
+        // When: reading it twice more
+        CustomerDto second = customerService.getCustomerByID("TEST1");
+        CustomerDto third = customerService.getCustomerByID("TEST1");
+
+        // Then: no statement was prepared and both reads were answered by Hibernate's query cache
+        assertEquals("Test Company Ltd", second.getCompanyName());
+        assertEquals("Test Company Ltd", third.getCompanyName());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+
+        // When: the customer is renamed and read again
+        Customer renamed = customerRepository.findById("TEST1").orElseThrow();
+        renamed.setCompanyName("Renamed Ltd");
+        customerRepository.save(renamed);
+
+        // Then: the cached lookup was invalidated
+        assertEquals("Renamed Ltd", customerService.getCustomerByID("TEST1").getCompanyName());
+    }
+
+    @Test
+    @DisplayName("A cached customer is dropped when a targeted UPDATE changes it")
+    void testFindById_AfterPatch_ReadsNewValue() {
+        // Given: a cached customer
+        customerRepository.findById("TEST1").orElseThrow();
+
+        // When: patching it with a bulk UPDATE, in a transaction as the service does
+        CustomerPatchDto patch = new CustomerPatchDto("Renamed Ltd", null, null, null, null, null, null, null, null, null);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> customerRepository.patchById("TEST1", patch));
+
+        // Then: the next read sees the new name
+        assertEquals("Renamed Ltd", customerRepository.findById("TEST1").orElseThrow().getCompanyName());
+    }
+
+    @Test
+    @DisplayName("Collection pages come from the query cache until a customer is written")
+    void testFindDtoPage_QueryCache() {
+        // Given: the first page was read once
+        customerRepository.findDtoPage(Limit.of(10));
+        long statements = statistics.getPrepareStatementCount();
+
+        // When: reading it again
+        List<CustomerDto> cached = customerRepository.findDtoPage(Limit.of(10));
+
+        // Then: the result came from the query cache
+        assertEquals(1, cached.size());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        // When: a customer is added and the page read again
+        customerRepository.save(customer("TEST2", "Mock Corp"));
+        List<CustomerDto> fresh = customerRepository.findDtoPage(Limit.of(10));
+
+        // Then: the cached result was invalidated
+        assertEquals(List.of("TEST1", "TEST2"), fresh.stream().map(CustomerDto::getCustomerID).toList());
+    }
+
+    @Test
+    @DisplayName("Upserts overwrite existing customers, insert new ones and drop the cached copies")
+    void testUpsertAll_InsertsUpdatesAndInvalidates() {
+        // Given: a cached customer with more columns set than the upsert carries, and a cached page
+        Customer existing = customer("TEST1", "Test Company Ltd");
+        existing.setCountry("UK");
+        customerRepository.save(existing);
+        customerRepository.findById("TEST1").orElseThrow();
+        customerRepository.findDtoPage(Limit.of(10));
+
+        // When: upserting it and a new customer, in a transaction as the service does
+        List<Customer> customers = List.of(customer("TEST1", "Renamed Ltd"), customer("TEST2", "Mock Corp"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> customerRepository.upsertAll(customers));
+
+        // Then: both rows are as written, with unset columns cleared as save does, and reads see them
+        Customer updated = customerRepository.findById("TEST1").orElseThrow();
+        assertEquals("Renamed Ltd", updated.getCompanyName());
+        assertNull(updated.getCountry());
+        assertEquals(List.of("TEST1", "TEST2"),
+                customerRepository.findDtoPage(Limit.of(10)).stream().map(CustomerDto::getCustomerID).toList());
+    }
+
+    private static Customer customer(String id, String companyName) {
+        Customer customer = new Customer();
+        customer.setCustomerID(id);
+        customer.setCompanyName(companyName);
+        return customer;
+    }
+}
@@ -0,0 +1,106 @@
+package com.sparta.northwind.repository;
+
+import com.sparta.northwind.dtos.CustomerSearchCriteria;
+import com.sparta.northwind.entities.Customer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * An index-friendly predicate is a LIKE on the bare column with a pattern that only ends in a wildcard.
+ * Wrapping the column in a function such as lower() or starting the pattern with % would force a full scan,
+ * so these tests check that the criteria builder is asked for nothing else.
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomerSpecificationsTest {
+
+    @Mock
+    private Root<Customer> root;
+
+    @Mock
+    private CriteriaQuery<?> query;
+
+    @Mock
+    private CriteriaBuilder criteriaBuilder;
+
+    @Mock
+    private Path<String> path;
+
+    @Mock
+    private Path<String> otherPath;
+
+    @Mock
+    private Predicate predicate;
+
+    @Mock
+    private Predicate otherPredicate;
+
+    @ParameterizedTest
+    @CsvSource({
+            "companyName, Alf, , , ",
+            "city, , Lon, , ",
+            "region, , , WA, ",
+            "postalCode, , , , 981"
+    })
+    @DisplayName("Each filter produces a prefix LIKE on its bare column")
+    void testSingleFilter_ProducesPrefixLike(String attribute, String companyName, String city, String region, String postalCode) {
+        // Given: criteria with one filter set
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria(companyName, city, region, postalCode);
+        String prefix = companyName != null ? companyName : city != null ? city : region != null ? region : postalCode;
+        when(root.<String>get(attribute)).thenReturn(path);
+        when(criteriaBuilder.like(path, prefix + "%", '\\')).thenReturn(predicate);
+
+        // When: building the predicate
+        Predicate result = CustomerSpecifications.matching(criteria).toPredicate(root, query, criteriaBuilder);
+
+        // Then: should be exactly one LIKE with a trailing wildcard and no function on the column
+        assertSame(predicate, result);
+        verify(criteriaBuilder).like(path, prefix + "%", '\\');
+        verifyNoMoreInteractions(criteriaBuilder);
+        verifyNoInteractions(path);
+    }
+
+    @Test
+    @DisplayName("Combined filters are joined with AND")
+    void testCombinedFilters_JoinedWithAnd() {
+        // Given: criteria filtering on company name and city
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria("Alf", "Ber", null, null);
+        when(root.<String>get("companyName")).thenReturn(path);
+        when(root.<String>get("city")).thenReturn(otherPath);
+        when(criteriaBuilder.like(path, "Alf%", '\\')).thenReturn(predicate);
+        when(criteriaBuilder.like(otherPath, "Ber%", '\\')).thenReturn(otherPredicate);
+
+        // When: building the predicate
+        CustomerSpecifications.matching(criteria).toPredicate(root, query, criteriaBuilder);
+
+        // Then: both prefix predicates must hold
+        verify(criteriaBuilder).and(predicate, otherPredicate);
+    }
+
+    @Test
+    @DisplayName("LIKE wildcards in the input are escaped so they match literally")
+    void testWildcardsAreEscaped() {
+        // Given: a company name containing LIKE wildcards
+        when(root.<String>get("companyName")).thenReturn(path);
+
+        // When: building the predicate
+        Specification<Customer> specification = CustomerSpecifications.companyNameStartsWith("50%_off\\");
+        specification.toPredicate(root, query, criteriaBuilder);
+
+        // Then: only the trailing wildcard is left unescaped
+        verify(criteriaBuilder).like(path, "50\\%\\_off\\\\%", '\\');
+    }
+}
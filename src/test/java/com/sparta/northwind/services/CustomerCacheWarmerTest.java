@@ -0,0 +1,178 @@
+package com.sparta.northwind.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sparta.northwind.CacheConfig;
+import com.sparta.northwind.dtos.CustomerChangeEvent;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerCacheWarmerTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CaffeineCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(CacheConfig.CUSTOMERS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private CustomerCacheWarmer warmer(Path hotKeysFile) {
+        CustomerCacheWarmer warmer = new CustomerCacheWarmer(customerRepository, cacheManager, true,
+                hotKeysFile == null ? "" : hotKeysFile.toString(), 100, 2, 2, 90, Duration.ofMinutes(1));
+        warmer.bindTo(meterRegistry);
+        return warmer;
+    }
+
+    private void givenCustomersExist(String... ids) {
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .filter(List.of(ids)::contains)
+                        .map(id -> new CustomerDto(id, "Mock Corp", "Test User", null))
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Without a hot-key list the first customers by ID are loaded in chunks, and readiness follows")
+    void testWarmUp_Scan() {
+        // Given: five customers and no hot-key list
+        when(customerRepository.findIds(Limit.of(100))).thenReturn(List.of("TEST1", "TEST2", "TEST3", "TEST4", "TEST5"));
+        givenCustomersExist("TEST1", "TEST2", "TEST3", "TEST4", "TEST5");
+        CustomerCacheWarmer warmer = warmer(null);
+        assertEquals(Status.OUT_OF_SERVICE, warmer.health().getStatus());
+
+        // When: warming up
+        warmer.warmUp();
+
+        // Then: every customer is cached, in three IN queries of at most two IDs
+        assertEquals(Status.UP, warmer.health().getStatus());
+        assertEquals(5, ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE)
+                .getNativeCache()).estimatedSize());
+        verify(customerRepository, times(3)).findDtosByIdIn(anyCollection());
+        assertEquals(5, meterRegistry.get("customers.warmup.loaded").gauge().value());
+        assertEquals(1, meterRegistry.get("customers.warmup.progress").gauge().value());
+        assertTrue(meterRegistry.get("customers.warmup.duration").timeGauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("The hottest customers saved at shutdown are what the next start loads")
+    void testHotKeys_SavedAndLoaded(@TempDir Path directory) throws Exception {
+        // Given: a cache holding two customers when the application stops
+        Path hotKeysFile = directory.resolve("hot-customers.txt");
+        cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).put("TEST1", new CustomerDto("TEST1", "Mock Corp", null, null));
+        cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).put("TEST2", new CustomerDto("TEST2", "Mock Corp", null, null));
+        warmer(hotKeysFile).destroy();
+        assertEquals(List.of("TEST1", "TEST2"), Files.readAllLines(hotKeysFile).stream().sorted().toList());
+
+        // When: the next start warms up an empty cache
+        cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).clear();
+        givenCustomersExist("TEST1", "TEST2");
+        warmer(hotKeysFile).warmUp();
+
+        // Then: those customers are cached again, without scanning the table
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST2"));
+        verify(customerRepository, never()).findIds(any());
+    }
+
+    @Test
+    @DisplayName("A failing warm-up still lets the application become ready, and the failures are counted")
+    void testWarmUp_FailureStillReady() {
+        // Given: the database times out on every chunk
+        when(customerRepository.findIds(Limit.of(100))).thenReturn(List.of("TEST1", "TEST2", "TEST3"));
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenThrow(new QueryTimeoutException("Timed out"));
+        CustomerCacheWarmer warmer = warmer(null);
+
+        // When: warming up
+        warmer.warmUp();
+
+        // Then: nothing is cached or counted as loaded, but readiness is not held back once warm-up has ended
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+        assertTrue(warmer.isReady());
+        assertEquals(0, meterRegistry.get("customers.warmup.loaded").gauge().value());
+        assertEquals(2, meterRegistry.get("customers.warmup.failures").functionCounter().count());
+        assertEquals(2L, warmer.health().getDetails().get("failedChunks"));
+    }
+
+    @Test
+    @DisplayName("A failed chunk does not count towards readiness while warm-up is still running")
+    void testWarmUp_FailedChunkNotReady() {
+        // Given: ten customers, the first chunk of which times out, and readiness checked during the last chunk
+        List<String> ids = List.of("TEST0", "TEST1", "TEST2", "TEST3", "TEST4", "TEST5", "TEST6", "TEST7", "TEST8", "TEST9");
+        when(customerRepository.findIds(Limit.of(100))).thenReturn(ids);
+        CustomerCacheWarmer warmer = new CustomerCacheWarmer(customerRepository, cacheManager, true, "", 100, 2, 1, 90,
+                Duration.ofMinutes(1));
+        List<Status> during = new ArrayList<>();
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> chunk = invocation.getArgument(0);
+            if (chunk.contains("TEST0")) {
+                throw new QueryTimeoutException("Timed out");
+            }
+            if (chunk.contains("TEST8")) {
+                during.add(warmer.health().getStatus());
+            }
+            return chunk.stream().map(id -> new CustomerDto(id, "Mock Corp", "Test User", null)).toList();
+        });
+
+        // When: warming up
+        warmer.warmUp();
+
+        // Then: 8 of 10 loaded is short of 90 percent, so the probe stays down until warm-up ends
+        assertEquals(List.of(Status.OUT_OF_SERVICE), during);
+        assertEquals(Status.UP, warmer.health().getStatus());
+        assertEquals(8, warmer.health().getDetails().get("loaded"));
+    }
+
+    @Test
+    @DisplayName("Customers changed or deleted while warm-up runs are not put back into the cache")
+    void testWarmUp_SkipsChangedCustomers() {
+        // Given: TEST1 is deleted, and TEST2 updated with its eviction already run, after their chunk was read
+        when(customerRepository.findIds(Limit.of(100))).thenReturn(List.of("TEST1", "TEST2", "TEST3"));
+        CustomerCacheWarmer warmer = warmer(null);
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> chunk = invocation.getArgument(0);
+            if (chunk.contains("TEST1")) {
+                warmer.onCustomerChange(CustomerChangeEvent.deleted("test1"));
+                warmer.onCustomerChange(CustomerChangeEvent.patched("TEST2"));
+            }
+            return chunk.stream().map(id -> new CustomerDto(id, "Mock Corp", "Test User", null)).toList();
+        });
+
+        // When: warming up
+        warmer.warmUp();
+
+        // Then: only the unchanged customer is cached
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST2"));
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST3"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.sparta.northwind.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.northwind.dtos.CustomerChangeEvent;
+import com.sparta.northwind.dtos.CustomerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerChangeFeedTest {
+
+    private static final CustomerDto CUSTOMER = new CustomerDto("TEST1", "Test Company Ltd", "Test User", "London");
+
+    /** Records each event as the text it would put on the wire, instead of writing to a response. */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch blocked = new CountDownLatch(0);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(count, events.size(), () -> "Events received: " + events);
+        }
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new CustomerChangeFeed(new ObjectMapper(), 4, 3, 3, Duration.ofMinutes(1), Duration.ofHours(1));
+        feed.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    @DisplayName("Every subscriber receives each change, in order, as a named event with JSON data")
+    void testOnChange_FansOut() throws InterruptedException {
+        // Given: two subscribers
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        feed.register(first, null);
+        feed.register(second, null);
+
+        // When: a customer is created and then deleted
+        feed.onChange(CustomerChangeEvent.created(CUSTOMER));
+        feed.onChange(CustomerChangeEvent.deleted("TEST1"));
+
+        // Then: both receive both events
+        first.awaitEvents(2);
+        second.awaitEvents(2);
+        assertEquals(first.events, second.events);
+        assertTrue(first.events.get(0).contains("event:created\n"));
+        assertTrue(first.events.get(0).contains("\"companyName\":\"Test Company Ltd\""));
+        assertTrue(first.events.get(1).contains("event:deleted\n"));
+        assertTrue(first.events.get(1).contains("data:{\"type\":\"DELETED\",\"customerID\":\"TEST1\"}"));
+        assertEquals(2, meterRegistry.get("customers.changes.subscribers").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A subscriber that falls behind gets a resync event and the changes after it")
+    void testSlowSubscriber_Resyncs() throws InterruptedException {
+        // Given: a subscriber whose connection is stuck, and one that keeps up
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.blocked = new CountDownLatch(1);
+        RecordingEmitter fast = new RecordingEmitter();
+        feed.register(slow, null);
+        feed.register(fast, null);
+
+        // When: more changes arrive than the slow subscriber's buffer of four holds, then it unblocks
+        for (int i = 1; i <= 8; i++) {
+            feed.onChange(CustomerChangeEvent.patched("TEST" + i));
+            fast.awaitEvents(i);
+        }
+        slow.blocked.countDown();
+
+        // Then: it receives the change it was stuck on, a resync in place of the four it lost, and the rest
+        slow.awaitEvents(5);
+        assertTrue(slow.events.get(0).contains("\"customerID\":\"TEST1\""));
+        assertTrue(slow.events.get(1).contains("event:" + CustomerChangeFeed.RESYNC_EVENT + "\n"));
+        assertTrue(slow.events.get(2).contains("\"customerID\":\"TEST6\""));
+        assertEquals(4, meterRegistry.get("customers.changes.dropped").functionCounter().count());
+        assertEquals(1, meterRegistry.get("customers.changes.resyncs").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("A reconnecting client is sent what it missed, or told to resync when it missed too much")
+    void testSubscribe_LastEventId() throws InterruptedException {
+        // Given: a subscriber that saw the first of four changes
+        RecordingEmitter original = new RecordingEmitter();
+        assertTrue(feed.register(original, null));
+        feed.onChange(CustomerChangeEvent.patched("TEST1"));
+        original.awaitEvents(1);
+        String firstId = original.events.get(0).lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+        feed.onChange(CustomerChangeEvent.patched("TEST2"));
+        feed.onChange(CustomerChangeEvent.patched("TEST3"));
+
+        // When / Then: reconnecting after the first change replays the other two
+        RecordingEmitter reconnected = new RecordingEmitter();
+        assertTrue(feed.register(reconnected, firstId));
+        reconnected.awaitEvents(2);
+        assertTrue(reconnected.events.get(0).contains("\"customerID\":\"TEST2\""));
+
+        // When / Then: once the first change has left the replay buffer of three, or the ID is unknown, it resyncs
+        feed.onChange(CustomerChangeEvent.patched("TEST4"));
+        feed.onChange(CustomerChangeEvent.patched("TEST5"));
+        RecordingEmitter tooLate = new RecordingEmitter();
+        assertTrue(feed.register(tooLate, firstId));
+        tooLate.awaitEvents(1);
+        assertTrue(tooLate.events.get(0).contains("event:" + CustomerChangeFeed.RESYNC_EVENT + "\n"));
+    }
+
+    @Test
+    @DisplayName("Subscriptions beyond the maximum are refused")
+    void testSubscribe_MaxSubscribers() {
+        // Given: the feed is at its maximum of three subscribers
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(feed.subscribe(null));
+        }
+
+        // When / Then: a fourth is refused
+        assertNull(feed.subscribe(null));
+    }
+}
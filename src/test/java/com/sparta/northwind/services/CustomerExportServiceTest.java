@@ -0,0 +1,70 @@
+package com.sparta.northwind.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerExportServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CustomerExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new CustomerExportService(customerRepository, new ObjectMapper());
+
+        // Using obviously fake test data to avoid confusion with real customer data
+        when(customerRepository.streamAllDtos()).thenReturn(Stream.of(
+                new CustomerDto("TEST1", "Test Company Ltd", "Test User", "London"),
+                new CustomerDto("TEST2", "Mock, \"Corp\"", null, null)));
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one JSON document per line")
+    void testExportNdjson() throws Exception {
+        // Given: an in-memory output stream
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When: exporting as NDJSON
+        long count = exportService.exportCustomers(output, CustomerExportService.Format.NDJSON);
+
+        // Then: should write one line per customer
+        assertEquals(2, count);
+        assertEquals("""
+                {"customerID":"TEST1","companyName":"Test Company Ltd","contactName":"Test User","city":"London"}
+                {"customerID":"TEST2","companyName":"Mock, \\"Corp\\"","contactName":null,"city":null}
+                """, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("CSV export writes a header and quotes fields containing separators")
+    void testExportCsv() throws Exception {
+        // Given: an in-memory output stream
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When: exporting as CSV
+        long count = exportService.exportCustomers(output, CustomerExportService.Format.CSV);
+
+        // Then: should escape the company name and leave nulls empty
+        assertEquals(2, count);
+        assertEquals("customerID,companyName,contactName,city\n"
+                + "TEST1,Test Company Ltd,Test User,London\n"
+                + "TEST2,\"Mock, \"\"Corp\"\"\",,\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
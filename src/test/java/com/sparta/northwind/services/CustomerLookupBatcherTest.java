@@ -0,0 +1,178 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerMapper;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerLookupBatcherTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CustomerLookupBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.destroy();
+        }
+    }
+
+    private static CustomerDto customer(String id) {
+        return new CustomerDto(id, "Mock Corp", "Test User", null);
+    }
+
+    /** The repository finds every ID except DUMMY, taking a millisecond per query as a stand-in for a round trip. */
+    private void givenRoundTrips(AtomicInteger roundTrips) {
+        lenient().when(customerRepository.findDtosByIdIn(anyCollection())).thenAnswer(invocation -> {
+            roundTrips.incrementAndGet();
+            Thread.sleep(1);
+            return invocation.<Collection<String>>getArgument(0).stream()
+                    .filter(id -> !id.equals("DUMMY"))
+                    .map(CustomerLookupBatcherTest::customer)
+                    .toList();
+        });
+        lenient().when(customerRepository.findDtoById(anyString())).thenAnswer(invocation -> {
+            roundTrips.incrementAndGet();
+            Thread.sleep(1);
+            return Optional.of(customer(invocation.getArgument(0)));
+        });
+    }
+
+    @Test
+    @DisplayName("Lookups within one window share an IN query and each caller gets its own customer")
+    void testLoad_WithinWindow() throws Exception {
+        // Given: a 50 ms window
+        AtomicInteger roundTrips = new AtomicInteger();
+        givenRoundTrips(roundTrips);
+        batcher = new CustomerLookupBatcher(customerRepository, true, Duration.ofMillis(50), 100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        batcher.bindTo(meterRegistry);
+
+        // When: three customers, one missing and one asked for twice, are looked up together
+        CompletableFuture<CustomerDto> first = batcher.load("TEST1");
+        CompletableFuture<CustomerDto> again = batcher.load("TEST1");
+        CompletableFuture<CustomerDto> second = batcher.load("TEST2");
+        CompletableFuture<CustomerDto> missing = batcher.load("DUMMY");
+
+        // Then: one query answers them all
+        assertEquals(customer("TEST1"), first.get(5, TimeUnit.SECONDS));
+        assertSame(first, again);
+        assertEquals(customer("TEST2"), second.get(5, TimeUnit.SECONDS));
+        assertNull(missing.get(5, TimeUnit.SECONDS));
+        assertEquals(1, roundTrips.get());
+        assertEquals(1, meterRegistry.get("customers.lookups.batches").functionCounter().count());
+        assertEquals(3, meterRegistry.get("customers.lookups.batched").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("A lowercase ID finds its customer, as the single-customer query does")
+    void testLoad_IgnoresCase() throws Exception {
+        // Given: the database compares IDs ignoring case and returns the stored uppercase ID
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenReturn(List.of(customer("ALFKI")));
+        batcher = new CustomerLookupBatcher(customerRepository, true, Duration.ofMillis(10), 100);
+
+        // When / Then: the lookup of "alfki" is answered with it
+        assertEquals(customer("ALFKI"), batcher.get("alfki"));
+    }
+
+    @Test
+    @DisplayName("A full batch is queried at once instead of waiting out the window")
+    void testLoad_FullBatch() throws Exception {
+        // Given: a window far longer than the test and batches of two
+        AtomicInteger roundTrips = new AtomicInteger();
+        givenRoundTrips(roundTrips);
+        batcher = new CustomerLookupBatcher(customerRepository, true, Duration.ofHours(1), 2);
+
+        // When: two customers are looked up
+        CompletableFuture<CustomerDto> first = batcher.load("TEST1");
+        CompletableFuture<CustomerDto> second = batcher.load("TEST2");
+
+        // Then: both are answered straight away
+        assertEquals(customer("TEST1"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(customer("TEST2"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, roundTrips.get());
+    }
+
+    @Test
+    @DisplayName("A failed IN query fails every lookup in the batch with its exception")
+    void testGet_FailureReachesEveryCaller() {
+        // Given: the database times out
+        when(customerRepository.findDtosByIdIn(anyCollection())).thenThrow(new QueryTimeoutException("Timed out"));
+        batcher = new CustomerLookupBatcher(customerRepository, true, Duration.ofMillis(10), 100);
+
+        // When / Then: each caller sees the timeout itself
+        CompletableFuture<CustomerDto> other = batcher.load("TEST2");
+        assertThrows(QueryTimeoutException.class, () -> batcher.get("TEST1"));
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> other.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(QueryTimeoutException.class, failure.getCause());
+    }
+
+    /**
+     * Load test: pages listing 20 customers each look every one up at once, as a client rendering a list of
+     * orders does. Compares the database round trips made by CustomerService with and without batching.
+     */
+    @Test
+    @DisplayName("Under fan-out traffic, batching cuts the database round trips several times over")
+    void testFanOut_FewerRoundTrips() throws Exception {
+        int unbatched = fanOut(false);
+        int batched = fanOut(true);
+
+        System.out.printf("%nFan-out of 50 pages x 20 customers: %d round trips unbatched, %d batched%n", unbatched, batched);
+        assertTrue(batched * 5 <= unbatched, () -> batched + " batched round trips against " + unbatched + " unbatched");
+    }
+
+    private int fanOut(boolean batching) throws Exception {
+        AtomicInteger roundTrips = new AtomicInteger();
+        givenRoundTrips(roundTrips);
+        CustomerLookupBatcher lookupBatcher = new CustomerLookupBatcher(customerRepository, batching, Duration.ofMillis(2), 100);
+        CustomerService customerService = new CustomerService(customerRepository, mock(CustomerMapper.class),
+                new CustomerSuggestIndex(customerRepository, mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class),
+                new SingleFlight<>(), lookupBatcher, new CustomerStats(customerRepository, Duration.ofMinutes(5)));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<CustomerDto>> lookups = new ArrayList<>();
+            for (int page = 0; page < 50; page++) {
+                for (int row = 0; row < 20; row++) {
+                    // Pages overlap, as popular customers appear on many of them
+                    String id = String.format("C%04d", (page * 7 + row) % 300);
+                    lookups.add(executor.submit(() -> customerService.getCustomerByID(id)));
+                }
+            }
+            for (Future<CustomerDto> lookup : lookups) {
+                assertNotNull(lookup.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            lookupBatcher.destroy();
+        }
+        return roundTrips.get();
+    }
+}
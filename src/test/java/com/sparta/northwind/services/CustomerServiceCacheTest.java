@@ -0,0 +1,127 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.CacheConfig;
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerMapper;
+import com.sparta.northwind.entities.Customer;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises the caching annotations on {@link CustomerService} through the real Spring proxy
+ * and the Caffeine cache configured in application.properties.
+ */
+@SpringBootTest(classes = {CustomerService.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class CustomerServiceCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+
+    @MockitoBean
+    private CustomerMapper customerMapper;
+
+    @MockitoBean
+    private CustomerSuggestIndex suggestIndex;
+
+    @MockitoBean
+    private CustomerLookupBatcher lookupBatcher;
+
+    @MockitoBean
+    private CustomerStats stats;
+
+    private CustomerDto testCustomerDto;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).clear();
+        testCustomerDto = new CustomerDto("TEST1", "Test Company Ltd", "Test User", null);
+    }
+
+    @Test
+    @DisplayName("Repeated lookups of the same customer hit the repository once")
+    void testGetCustomerById_CachesResult() {
+        // Given: repository returns a customer
+        when(customerRepository.findDtoById("TEST1")).thenReturn(Optional.of(testCustomerDto));
+
+        // When: looking the customer up twice
+        CustomerDto first = customerService.getCustomerByID("TEST1");
+        CustomerDto second = customerService.getCustomerByID("TEST1");
+
+        // Then: the second lookup is served from the cache
+        assertEquals(testCustomerDto, first);
+        assertEquals(testCustomerDto, second);
+        verify(customerRepository, times(1)).findDtoById("TEST1");
+    }
+
+    @Test
+    @DisplayName("Lookups of missing customers are not cached")
+    void testGetCustomerById_DoesNotCacheMisses() {
+        // Given: repository does not know the customer
+        when(customerRepository.findDtoById("DUMMY")).thenReturn(Optional.empty());
+
+        // When: looking the customer up twice
+        customerService.getCustomerByID("DUMMY");
+        customerService.getCustomerByID("DUMMY");
+
+        // Then: both lookups go to the repository
+        verify(customerRepository, times(2)).findDtoById("DUMMY");
+    }
+
+    @Test
+    @DisplayName("Updating a customer refreshes its cache entry")
+    void testUpdateCustomer_RefreshesCache() {
+        // Given: the customer is cached
+        when(customerRepository.findDtoById("TEST1")).thenReturn(Optional.of(testCustomerDto));
+        customerService.getCustomerByID("TEST1");
+
+        // When: the customer is updated
+        CustomerDto updatedDto = new CustomerDto("TEST1", "Renamed Ltd", "Test User", null);
+        Customer updatedCustomer = new Customer();
+        when(customerMapper.toEntity(updatedDto)).thenReturn(updatedCustomer);
+        when(customerRepository.save(updatedCustomer)).thenReturn(updatedCustomer);
+        when(customerMapper.toDto(updatedCustomer)).thenReturn(updatedDto);
+        customerService.updateCustomer(updatedDto);
+
+        // Then: the next lookup returns the updated customer without a repository call
+        assertEquals(updatedDto, customerService.getCustomerByID("TEST1"));
+        verify(customerRepository, times(1)).findDtoById("TEST1");
+    }
+
+    @Test
+    @DisplayName("Deleting a customer evicts its cache entry")
+    void testDeleteCustomer_EvictsCache() {
+        // Given: the customer is cached
+        when(customerRepository.findDtoById("TEST1")).thenReturn(Optional.of(testCustomerDto));
+        customerService.getCustomerByID("TEST1");
+
+        // When: the customer is deleted
+        when(customerRepository.deleteRowById("TEST1")).thenReturn(1);
+        customerService.deleteCustomerById("TEST1");
+
+        // Then: the next lookup goes back to the repository
+        when(customerRepository.findDtoById("TEST1")).thenReturn(Optional.empty());
+        assertNull(customerService.getCustomerByID("TEST1"));
+        verify(customerRepository, times(2)).findDtoById(any());
+    }
+}
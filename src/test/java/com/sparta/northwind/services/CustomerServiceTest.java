@@ -1,7 +1,14 @@
 package com.sparta.northwind.services;
 
+import com.sparta.northwind.dtos.CustomerBatchResult;
+import com.sparta.northwind.dtos.CustomerChangeEvent;
 import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerLocation;
 import com.sparta.northwind.dtos.CustomerMapper;
+import com.sparta.northwind.dtos.CustomerPage;
+import com.sparta.northwind.dtos.CustomerPatchDto;
+import com.sparta.northwind.dtos.CustomerSearchCriteria;
+import com.sparta.northwind.dtos.CustomerSuggestion;
 import com.sparta.northwind.entities.Customer;
 import com.sparta.northwind.repository.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,18 +17,40 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class CustomerServiceTest {
@@ -32,6 +61,21 @@ class CustomerServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerSuggestIndex suggestIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SingleFlight<String, CustomerDto> lookups = new SingleFlight<>();
+
+    @Mock
+    private CustomerLookupBatcher lookupBatcher;
+
+    @Mock
+    private CustomerStats stats;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -64,11 +108,8 @@ class CustomerServiceTest {
     @Test
     @DisplayName("Get all customers returns list of all customers from repository")
     void testGetAllCustomers() {
-        // Given: repository contains a list of customer entities
-        when(customerRepository.findAll()).thenReturn(testCustomers);
-        // Mock the mapper to convert entities to DTOs
-        when(customerMapper.toDto(testCustomer)).thenReturn(testCustomerDtos.get(0));
-        when(customerMapper.toDto(testCustomers.get(1))).thenReturn(testCustomerDtos.get(1));
+        // Given: repository projects the customers straight into DTOs
+        when(customerRepository.findAllDtos()).thenReturn(testCustomerDtos);
 
         // When: requesting all customers from service
         List<CustomerDto> actualCustomers = customerService.getAllCustomer();
@@ -80,19 +121,90 @@ class CustomerServiceTest {
         assertEquals("Test Company Ltd", actualCustomers.get(0).getCompanyName());
         assertEquals("Mock Corporation", actualCustomers.get(1).getCompanyName());
         
-        // Verify repository and mapper were called
-        verify(customerRepository).findAll();
-        verify(customerMapper).toDto(testCustomer);
-        verify(customerMapper).toDto(testCustomers.get(1));
+        // Verify repository was called and no entity had to be mapped
+        verify(customerRepository).findAllDtos();
+        verifyNoInteractions(customerMapper);
+    }
+
+    @Test
+    @DisplayName("Get customer page returns next cursor when more rows exist than the limit")
+    void testGetCustomerPage_HasNext() {
+        // Given: repository returns one row more than the requested limit
+        when(customerRepository.findDtoPage(Limit.of(2))).thenReturn(testCustomerDtos);
+
+        // When: requesting the first page of one customer
+        CustomerPage page = customerService.getCustomerPage(null, 1);
+
+        // Then: should return one customer and a cursor pointing at it
+        assertEquals(1, page.getCustomers().size());
+        assertEquals(testCustomerDto, page.getCustomers().get(0));
+        assertEquals("TEST1", page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Get customer page seeks past the cursor and returns no cursor on the last page")
+    void testGetCustomerPage_LastPage() {
+        // Given: repository returns fewer rows than the limit after the cursor
+        when(customerRepository.findDtoPageAfter("TEST0", Limit.of(11))).thenReturn(testCustomerDtos);
+
+        // When: requesting the page after the cursor
+        CustomerPage page = customerService.getCustomerPage("TEST0", 10);
+
+        // Then: should return both customers and no next cursor
+        assertEquals(testCustomerDtos, page.getCustomers());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("Get customer page rejects a limit above the maximum page size")
+    void testGetCustomerPage_LimitTooLarge() {
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.getCustomerPage(null, CustomerService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Search customers projects to DTOs and adds CustomerID as the final sort key")
+    @SuppressWarnings("unchecked")
+    void testSearchCustomers_StableSort() {
+        // Given: the repository runs the fluent query against a stubbed query object
+        JpaSpecificationExecutor.SpecificationFluentQuery<Customer> entityQuery = mock(JpaSpecificationExecutor.SpecificationFluentQuery.class);
+        JpaSpecificationExecutor.SpecificationFluentQuery<CustomerDto> dtoQuery = mock(JpaSpecificationExecutor.SpecificationFluentQuery.class);
+        Slice<CustomerDto> expected = new SliceImpl<>(testCustomerDtos);
+        when(entityQuery.as(CustomerDto.class)).thenReturn(dtoQuery);
+        when(dtoQuery.slice(any())).thenReturn(expected);
+        when(customerRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1, Function.class).apply(entityQuery));
+
+        // When: searching by city sorted by company name
+        Slice<CustomerDto> result = customerService.searchCustomers(
+                new CustomerSearchCriteria(null, "Lon", null, null), PageRequest.of(2, 20, Sort.by("companyName")));
+
+        // Then: should return the projected slice with a stable sort
+        assertSame(expected, result);
+        verify(dtoQuery).slice(PageRequest.of(2, 20, Sort.by("companyName", "customerID")));
+    }
+
+    @Test
+    @DisplayName("Search customers rejects searches without filters or with unindexed sorts")
+    void testSearchCustomers_InvalidRequests() {
+        Pageable firstPage = PageRequest.of(0, 10);
+        CustomerSearchCriteria byCity = new CustomerSearchCriteria(null, "Lon", null, null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.searchCustomers(new CustomerSearchCriteria(null, null, null, null), firstPage));
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.searchCustomers(byCity, PageRequest.of(0, 10, Sort.by("phone"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.searchCustomers(byCity, PageRequest.of(0, CustomerService.MAX_PAGE_SIZE + 1)));
+        verifyNoInteractions(customerRepository);
     }
 
     @Test
     @DisplayName("Get customer by ID returns customer when ID exists in repository")
     void testGetCustomerById_Success() {
-        // Given: repository will return a customer entity for valid ID
+        // Given: repository will return a customer DTO projection for valid ID
         String customerId = "TEST1";
-        when(customerRepository.findById(customerId)).thenReturn(Optional.of(testCustomer));
-        when(customerMapper.toDto(testCustomer)).thenReturn(testCustomerDto);
+        when(customerRepository.findDtoById(customerId)).thenReturn(Optional.of(testCustomerDto));
 
         // When: requesting customer by ID
         CustomerDto actualCustomer = customerService.getCustomerByID(customerId);
@@ -102,9 +214,9 @@ class CustomerServiceTest {
         assertEquals(testCustomerDto.getCustomerID(), actualCustomer.getCustomerID());
         assertEquals(testCustomerDto.getCompanyName(), actualCustomer.getCompanyName());
         
-        // Verify repository and mapper were called
-        verify(customerRepository).findById(customerId);
-        verify(customerMapper).toDto(testCustomer);
+        // Verify repository was called and no entity had to be mapped
+        verify(customerRepository).findDtoById(customerId);
+        verifyNoInteractions(customerMapper);
     }
 
     @Test
@@ -112,7 +224,7 @@ class CustomerServiceTest {
     void testGetCustomerById_NotFound() {
         // Given: repository will return empty for non-existent ID
         String nonExistentCustomerId = "DUMMY";
-        when(customerRepository.findById(nonExistentCustomerId)).thenReturn(Optional.empty());
+        when(customerRepository.findDtoById(nonExistentCustomerId)).thenReturn(Optional.empty());
 
         // When: requesting customer by non-existent ID
         CustomerDto actualCustomer = customerService.getCustomerByID(nonExistentCustomerId);
@@ -121,9 +233,91 @@ class CustomerServiceTest {
         assertNull(actualCustomer);
         
         // Verify repository was called with correct ID (mapper should not be called)
-        verify(customerRepository).findById(nonExistentCustomerId);
+        verify(customerRepository).findDtoById(nonExistentCustomerId);
+    }
+
+    @Test
+    @DisplayName("Concurrent lookups of the same customer share one query")
+    void testGetCustomerById_ConcurrentLookupsCoalesced() throws Exception {
+        // Given: a slow query for a customer and twenty callers asking for it at once
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRepository.findDtoById("TEST1")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(testCustomerDto);
+        });
+        List<Future<CustomerDto>> callers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                callers.add(executor.submit(() -> customerService.getCustomerByID("TEST1")));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lookups.coalescedCount() < 19 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            // When: the query returns
+            release.countDown();
+
+            // Then: every caller gets the customer from the one query
+            for (Future<CustomerDto> caller : callers) {
+                assertEquals(testCustomerDto, caller.get(5, TimeUnit.SECONDS));
+            }
+        }
+        verify(customerRepository, times(1)).findDtoById("TEST1");
+        assertEquals(19, lookups.coalescedCount());
+        assertEquals(0, lookups.inFlightCount());
+    }
+
+
+    @Test
+    @DisplayName("Get customers by IDs runs one IN query and returns the found customers in request order")
+    void testGetCustomersByIds() {
+        // Given: two of the three requested customers exist, and one is asked for twice
+        CustomerDto second = new CustomerDto("TEST2", "Mock Corp", null, null);
+        when(customerRepository.findDtosByIdIn(Set.of("TEST2", "DUMMY", "TEST1")))
+                .thenReturn(List.of(testCustomerDto, second));
+
+        // When: requesting them
+        List<CustomerDto> customers = customerService.getCustomersByIds(List.of("TEST2", "DUMMY", "TEST1", "TEST2"));
+
+        // Then: each found customer is returned once, in the order requested
+        assertEquals(List.of(second, testCustomerDto), customers);
+        verify(customerRepository, times(1)).findDtosByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Get customers by IDs matches IDs ignoring case and trailing spaces, as the database does")
+    void testGetCustomersByIds_IgnoresCase() {
+        // Given: the database finds TEST1 for a lowercase ID and for one with a trailing space
+        when(customerRepository.findDtosByIdIn(any())).thenReturn(List.of(testCustomerDto));
+
+        // When: requesting it both ways
+        List<CustomerDto> customers = customerService.getCustomersByIds(List.of("test1", "TEST1 "));
+
+        // Then: it is returned, once
+        assertEquals(List.of(testCustomerDto), customers);
+    }
+
+    @Test
+    @DisplayName("Get customers by IDs rejects more IDs than one query may carry")
+    void testGetCustomersByIds_TooMany() {
+        List<String> ids = Collections.nCopies(CustomerService.MAX_MULTI_GET_SIZE + 1, "TEST1");
+
+        assertThrows(IllegalArgumentException.class, () -> customerService.getCustomersByIds(ids));
+        verifyNoInteractions(customerRepository);
     }
 
+    @Test
+    @DisplayName("With lookup batching enabled, lookups go through the batcher")
+    void testGetCustomerById_Batched() {
+        // Given: batching is on
+        when(lookupBatcher.isEnabled()).thenReturn(true);
+        when(lookupBatcher.get("TEST1")).thenReturn(testCustomerDto);
+
+        // When / Then: the customer comes from the batcher, not a query of its own
+        assertEquals(testCustomerDto, customerService.getCustomerByID("TEST1"));
+        verify(customerRepository, never()).findDtoById(anyString());
+    }
 
     @Test
     @DisplayName("Save customer returns saved customer when repository save succeeds")
@@ -146,6 +340,56 @@ class CustomerServiceTest {
         verify(customerMapper).toDto(testCustomer);
     }
 
+    @Test
+    @DisplayName("Create customers in batch inserts new customers and reports existing ones as conflicts")
+    void testCreateCustomers_ReportsConflicts() {
+        // Given: TEST2 already exists and TEST1 is sent twice
+        CustomerDto existingDto = testCustomerDtos.get(1);
+        List<CustomerDto> batch = List.of(testCustomerDto, existingDto, testCustomerDto);
+        when(customerRepository.findExistingIds(List.of("TEST1", "TEST2", "TEST1"))).thenReturn(List.of("TEST2"));
+        when(customerMapper.toEntity(testCustomerDto)).thenReturn(testCustomer);
+
+        // When: creating the batch
+        List<CustomerBatchResult> results = customerService.createCustomers(batch);
+
+        // Then: only the first TEST1 is inserted
+        assertEquals(List.of(
+                CustomerBatchResult.created("TEST1"),
+                CustomerBatchResult.conflict("TEST2"),
+                CustomerBatchResult.conflict("TEST1")), results);
+        verify(customerRepository).persistAll(List.of(testCustomer));
+        verify(customerRepository, never()).existsById(anyString());
+        verify(customerRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Create customers in batch checks existence once per chunk")
+    void testCreateCustomers_OneExistenceQueryPerChunk() {
+        // Given: a batch spanning three chunks where nothing exists yet
+        List<CustomerDto> batch = new ArrayList<>();
+        for (int i = 0; i < CustomerService.BATCH_CHUNK_SIZE * 2 + 1; i++) {
+            batch.add(new CustomerDto(String.format("C%04d", i), "Company " + i, null, null));
+        }
+        when(customerRepository.findExistingIds(any())).thenReturn(List.of());
+        when(customerMapper.toEntity(any(CustomerDto.class))).thenReturn(testCustomer);
+
+        // When: creating the batch
+        List<CustomerBatchResult> results = customerService.createCustomers(batch);
+
+        // Then: every customer is created with three existence queries and three insert batches
+        assertEquals(batch.size(), results.size());
+        verify(customerRepository, times(3)).findExistingIds(any());
+        verify(customerRepository, times(3)).persistAll(any());
+    }
+
+    @Test
+    @DisplayName("Create customers in batch rejects batches above the maximum size")
+    void testCreateCustomers_TooLarge() {
+        List<CustomerDto> batch = Collections.nCopies(CustomerService.MAX_BATCH_SIZE + 1, testCustomerDto);
+        assertThrows(IllegalArgumentException.class, () -> customerService.createCustomers(batch));
+        verifyNoInteractions(customerRepository);
+    }
+
     @Test
     @DisplayName("Update customer returns updated customer when repository save succeeds")
     void testUpdateCustomer_Success() {
@@ -165,15 +409,17 @@ class CustomerServiceTest {
         verify(customerMapper).toEntity(testCustomerDto);
         verify(customerRepository).save(testCustomer);
         verify(customerMapper).toDto(testCustomer);
+        // Verify the change feed is told about the customer as written
+        verify(eventPublisher).publishEvent(CustomerChangeEvent.updated(testCustomerDto));
     }
 
 
     @Test
     @DisplayName("Delete customer by ID returns true when customer exists and is deleted successfully")
     void testDeleteCustomerById_Success() {
-        // Given: customer exists in repository
+        // Given: the delete statement removes one row
         String customerId = "TEST1";
-        when(customerRepository.existsById(customerId)).thenReturn(true);
+        when(customerRepository.deleteRowById(customerId)).thenReturn(1);
 
         // When: deleting existing customer by ID
         boolean deletionResult = customerService.deleteCustomerById(customerId);
@@ -181,17 +427,35 @@ class CustomerServiceTest {
         // Then: should return true indicating successful deletion
         assertTrue(deletionResult);
         
-        // Verify repository operations were called in correct order
-        verify(customerRepository).existsById(customerId);
-        verify(customerRepository).deleteById(customerId);
+        // Verify a single delete statement was issued without an existence check
+        verify(customerRepository).deleteRowById(customerId);
+        verify(customerRepository, never()).existsById(anyString());
+        verify(customerRepository, never()).deleteById(anyString());
+        // Verify the deletion was published
+        verify(eventPublisher).publishEvent(CustomerChangeEvent.deleted(customerId));
+    }
+
+    @Test
+    @DisplayName("Delete customer by ID takes the customer's location off the stats")
+    void testDeleteCustomerById_CountsStats() {
+        // Given: the customer is in Berlin and the delete removes its row
+        CustomerLocation location = new CustomerLocation("TEST1", "Germany", "Berlin", null);
+        when(customerRepository.findLocationsByIdIn(List.of("TEST1"))).thenReturn(List.of(location));
+        when(customerRepository.deleteRowById("TEST1")).thenReturn(1);
+
+        // When: deleting the customer
+        customerService.deleteCustomerById("TEST1");
+
+        // Then: the stats lose one customer in Berlin
+        verify(stats).record(List.of(location), List.of());
     }
 
     @Test
     @DisplayName("Delete customer by ID returns false when customer does not exist in repository")
     void testDeleteCustomerById_NotFound() {
-        // Given: customer does not exist in repository
-        String nonExistentCustomerId = anyString();
-        when(customerRepository.existsById(nonExistentCustomerId)).thenReturn(false);
+        // Given: the delete statement affects no rows
+        String nonExistentCustomerId = "DUMMY";
+        when(customerRepository.deleteRowById(nonExistentCustomerId)).thenReturn(0);
 
         // When: attempting to delete non-existent customer
         boolean deletionResult = customerService.deleteCustomerById(nonExistentCustomerId);
@@ -199,9 +463,134 @@ class CustomerServiceTest {
         // Then: should return false indicating no deletion occurred
         assertFalse(deletionResult);
         
-        // Verify repository operations
-        verify(customerRepository).existsById(nonExistentCustomerId);
-        verify(customerRepository, never()).deleteById(nonExistentCustomerId);
+        // Verify only the delete statement was issued and nothing was published
+        verify(customerRepository).deleteRowById(nonExistentCustomerId);
+        verify(customerRepository, never()).existsById(anyString());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Delete customers by IDs issues one statement for distinct IDs and returns the deleted count")
+    void testDeleteCustomersByIds() {
+        // Given: two of the three distinct IDs exist
+        when(customerRepository.deleteRowsByIdIn(Set.of("TEST1", "TEST2", "DUMMY"))).thenReturn(2);
+
+        // When: deleting with a duplicated ID
+        int deleted = customerService.deleteCustomersByIds(List.of("TEST1", "TEST2", "DUMMY", "TEST1"));
+
+        // Then: should report the rows actually deleted
+        assertEquals(2, deleted);
+        verify(customerRepository).deleteRowsByIdIn(Set.of("TEST1", "TEST2", "DUMMY"));
+    }
+
+    @Test
+    @DisplayName("Delete customers by IDs announces and unindexes only the customers that existed")
+    void testDeleteCustomersByIds_OnlyExisting() {
+        // Given: TEST1 and TEST2 exist, TEST2 stored in uppercase, and DUMMY does not
+        when(customerRepository.findLocationsByIdIn(Set.of("TEST1", "test2", "DUMMY"))).thenReturn(List.of(
+                new CustomerLocation("TEST1", "Germany", "Berlin", null),
+                new CustomerLocation("TEST2", "UK", "London", null)));
+        when(customerRepository.deleteRowsByIdIn(Set.of("TEST1", "test2", "DUMMY"))).thenReturn(2);
+
+        // When: deleting all three
+        customerService.deleteCustomersByIds(List.of("TEST1", "test2", "DUMMY"));
+
+        // Then: the two deleted customers are announced and removed from the index under their stored IDs
+        verify(eventPublisher).publishEvent(CustomerChangeEvent.deleted("TEST1"));
+        verify(eventPublisher).publishEvent(CustomerChangeEvent.deleted("TEST2"));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        verify(suggestIndex).remove("TEST1");
+        verify(suggestIndex).remove("TEST2");
+        verify(suggestIndex, never()).remove("DUMMY");
+    }
+
+    @Test
+    @DisplayName("Delete customers by IDs rejects lists above the maximum size")
+    void testDeleteCustomersByIds_TooLarge() {
+        List<String> ids = Collections.nCopies(CustomerService.MAX_BULK_DELETE_SIZE + 1, "TEST1");
+        assertThrows(IllegalArgumentException.class, () -> customerService.deleteCustomersByIds(ids));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Patch customer issues one targeted update and returns true when a row changed")
+    void testPatchCustomer_Success() {
+        // Given: a patch of the phone number only, and the update affects one row
+        CustomerPatchDto patch = new CustomerPatchDto(null, null, null, null, null, null, null, null, "555-0100", null);
+        when(customerRepository.patchById("TEST1", patch)).thenReturn(1);
+
+        // When: patching the customer
+        boolean patched = customerService.patchCustomer("TEST1", patch);
+
+        // Then: should report success without reading or saving the entity
+        assertTrue(patched);
+        verify(customerRepository, never()).findById(anyString());
+        verify(customerRepository, never()).save(any());
+        verify(customerRepository, never()).findLocationsByIdIn(any());
+        // Verify the suggest index and stats are left alone when no name or location changed
+        verifyNoInteractions(suggestIndex);
+        verifyNoInteractions(stats);
+    }
+
+    @Test
+    @DisplayName("Patch customer moving the customer reads its old location and moves it in the stats")
+    void testPatchCustomer_MovesStats() {
+        // Given: a Berlin customer patched to Munich, keeping its country
+        CustomerPatchDto patch = new CustomerPatchDto(null, null, null, null, "Munich", "BY", null, null, null, null);
+        when(customerRepository.findLocationsByIdIn(List.of("TEST1")))
+                .thenReturn(List.of(new CustomerLocation("TEST1", "Germany", "Berlin", null)));
+        when(customerRepository.patchById("TEST1", patch)).thenReturn(1);
+
+        // When: patching the customer
+        assertTrue(customerService.patchCustomer("TEST1", patch));
+
+        // Then: the stats move it from Berlin to Munich
+        verify(stats).record(List.of(new CustomerLocation("TEST1", "Germany", "Berlin", null)),
+                List.of(new CustomerLocation("TEST1", "Germany", "Munich", "BY")));
+    }
+
+    @Test
+    @DisplayName("Patch customer returns false when no row was updated")
+    void testPatchCustomer_NotFound() {
+        // Given: the update affects no rows
+        CustomerPatchDto patch = new CustomerPatchDto("Renamed Ltd", null, null, null, null, null, null, null, null, null);
+        when(customerRepository.patchById("DUMMY", patch)).thenReturn(0);
+
+        // When / Then: should report not found and leave the suggest index alone
+        assertFalse(customerService.patchCustomer("DUMMY", patch));
+        verifyNoInteractions(suggestIndex);
+    }
+
+    @Test
+    @DisplayName("Patch customer rejects a patch without any field")
+    void testPatchCustomer_Empty() {
+        CustomerPatchDto patch = new CustomerPatchDto(null, null, null, null, null, null, null, null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> customerService.patchCustomer("TEST1", patch));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Suggest customers is answered by the index without touching the repository")
+    void testSuggestCustomers() {
+        // Given: the index knows one matching name
+        List<CustomerSuggestion> suggestions = List.of(
+                new CustomerSuggestion("TEST1", "Test Company Ltd", CustomerSuggestion.Field.COMPANY_NAME));
+        when(suggestIndex.suggest("tes", 10)).thenReturn(suggestions);
+
+        // When: asking for suggestions
+        List<CustomerSuggestion> result = customerService.suggestCustomers("tes", 10);
+
+        // Then: should return the index's answer
+        assertEquals(suggestions, result);
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    @DisplayName("Suggest customers rejects a blank prefix and a limit above the maximum")
+    void testSuggestCustomers_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> customerService.suggestCustomers(" ", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.suggestCustomers("tes", CustomerService.MAX_SUGGESTIONS + 1));
+        verifyNoInteractions(suggestIndex);
     }
-    
 }
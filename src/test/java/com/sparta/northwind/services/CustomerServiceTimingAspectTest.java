@@ -0,0 +1,112 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerMapper;
+import com.sparta.northwind.entities.Customer;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerServiceTimingAspectTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerMapper customerMapper;
+
+    @Mock
+    private CustomerSuggestIndex suggestIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerService customerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new CustomerService(customerRepository, customerMapper, suggestIndex, eventPublisher,
+                        new SingleFlight<>(), new CustomerLookupBatcher(customerRepository, false, Duration.ZERO, 1),
+                        new CustomerStats(customerRepository, Duration.ofMinutes(5))));
+        proxyFactory.addAspect(new CustomerServiceTimingAspect(meterRegistry));
+        customerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Lookups are timed per operation with found and not-found outcomes")
+    void testGetCustomerById_RecordsOutcome() {
+        // Given: one existing and one missing customer
+        when(customerRepository.findDtoById("TEST1")).thenReturn(Optional.of(new CustomerDto("TEST1", "Test Company Ltd", null, null)));
+        when(customerRepository.findDtoById("DUMMY")).thenReturn(Optional.empty());
+
+        // When: looking both up
+        customerService.getCustomerByID("TEST1");
+        customerService.getCustomerByID("DUMMY");
+
+        // Then: each lookup is recorded under its outcome
+        assertEquals(1, timer("getCustomerByID", "success").count());
+        assertEquals(1, timer("getCustomerByID", "not-found").count());
+    }
+
+    @Test
+    @DisplayName("Creating an existing customer is timed as a conflict and still throws")
+    void testCreateCustomer_RecordsConflict() {
+        // Given: the customer already exists
+        when(customerRepository.findById("TEST1")).thenReturn(Optional.of(new Customer()));
+        CustomerDto customerDto = new CustomerDto("TEST1", "Test Company Ltd", null, null);
+
+        // When / Then: the exception reaches the caller and the call is recorded as a conflict
+        assertThrows(ResponseStatusException.class, () -> customerService.createCustomer(customerDto));
+        Timer timer = meterRegistry.get(CustomerServiceTimingAspect.TIMER_NAME)
+                .tags("operation", "createCustomer", "outcome", "conflict", "exception", "ResponseStatusException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("Rejected arguments are timed as invalid")
+    void testGetCustomerPage_RecordsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> customerService.getCustomerPage(null, 0));
+        assertEquals(1, timer("getCustomerPage", "invalid").count());
+    }
+
+    @Test
+    @DisplayName("Void operations that return are timed as successes")
+    void testApplyUpdates_RecordsSuccess() {
+        customerService.applyUpdates(List.of());
+        assertEquals(1, timer("applyUpdates", "success").count());
+    }
+
+    @Test
+    @DisplayName("Accessors reading in-memory counters are not timed")
+    void testAccessors_NotTimed() {
+        customerService.countCustomers();
+        assertNull(meterRegistry.find(CustomerServiceTimingAspect.TIMER_NAME).tag("operation", "countCustomers").timer());
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return meterRegistry.get(CustomerServiceTimingAspect.TIMER_NAME)
+                .tags("operation", operation, "outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,154 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.dtos.CustomerCount;
+import com.sparta.northwind.dtos.CustomerLocation;
+import com.sparta.northwind.dtos.CustomerLocationCount;
+import com.sparta.northwind.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerStatsTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CustomerStats stats;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        stats = new CustomerStats(customerRepository, Duration.ofMinutes(5));
+        meterRegistry = new SimpleMeterRegistry();
+        stats.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stats.destroy();
+    }
+
+    /** Three customers in Germany, two of them in Berlin, and one in London with no region. */
+    private static List<CustomerLocationCount> grouped() {
+        return List.of(
+                new CustomerLocationCount("Germany", "Berlin", null, 2),
+                new CustomerLocationCount("Germany", "Aachen", "NRW", 1),
+                new CustomerLocationCount("UK", "London", null, 1));
+    }
+
+    @Test
+    @DisplayName("The first read seeds the counts from one GROUP BY, and later reads do not query again")
+    void testCountBy_Seeded() {
+        // Given: the grouped table
+        when(customerRepository.countByLocation()).thenReturn(grouped());
+
+        // When / Then: every column is counted from the one query, most customers first
+        assertEquals(4, stats.total());
+        assertEquals(List.of(new CustomerCount("Germany", 3), new CustomerCount("UK", 1)),
+                stats.countBy(CustomerStats.Dimension.COUNTRY));
+        assertEquals(List.of(new CustomerCount("Berlin", 2), new CustomerCount("Aachen", 1), new CustomerCount("London", 1)),
+                stats.countBy(CustomerStats.Dimension.CITY));
+        assertEquals(List.of(new CustomerCount(null, 3), new CustomerCount("NRW", 1)),
+                stats.countBy(CustomerStats.Dimension.REGION));
+        verify(customerRepository, times(1)).countByLocation();
+    }
+
+    @Test
+    @DisplayName("Readers arriving before the counts are loaded share one GROUP BY")
+    void testCountBy_ConcurrentFirstReaders() throws Exception {
+        // Given: a slow GROUP BY
+        when(customerRepository.countByLocation()).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return grouped();
+        });
+
+        // When: ten readers ask for the total at once
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> totals = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                totals.add(executor.submit(stats::total));
+            }
+            for (Future<Long> total : totals) {
+                assertEquals(4, total.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // Then: the table was counted once
+        verify(customerRepository, times(1)).countByLocation();
+    }
+
+    @Test
+    @DisplayName("Recorded writes move, add and remove customers without touching the database")
+    void testRecord() {
+        // Given: seeded counts
+        when(customerRepository.countByLocation()).thenReturn(grouped());
+        assertTrue(stats.reconcile());
+
+        // When: a Berlin customer moves to Paris, the London one is deleted and one is created in Aachen
+        stats.record(List.of(new CustomerLocation("TEST1", "Germany", "Berlin", null)),
+                List.of(new CustomerLocation("TEST1", "France", "Paris", null)));
+        stats.record(List.of(new CustomerLocation("TEST2", "UK", "London", null)), List.of());
+        stats.record(List.of(), List.of(new CustomerLocation("TEST3", "Germany", "Aachen", "NRW")));
+
+        // Then: the counts follow, and values no customer has any more are gone
+        assertEquals(4, stats.total());
+        assertEquals(List.of(new CustomerCount("Germany", 3), new CustomerCount("France", 1)),
+                stats.countBy(CustomerStats.Dimension.COUNTRY));
+        assertEquals(List.of(new CustomerCount("Aachen", 2), new CustomerCount("Berlin", 1), new CustomerCount("Paris", 1)),
+                stats.countBy(CustomerStats.Dimension.CITY));
+        verify(customerRepository, times(1)).countByLocation();
+    }
+
+    @Test
+    @DisplayName("Reconciliation replaces drifted counts and reports how many it corrected")
+    void testReconcile_CorrectsDrift() {
+        // Given: counts that have drifted, as after a row deleted directly in the database
+        when(customerRepository.countByLocation()).thenReturn(grouped())
+                .thenReturn(List.of(new CustomerLocationCount("Germany", "Berlin", null, 2),
+                        new CustomerLocationCount("Germany", "Aachen", "NRW", 1)));
+        assertTrue(stats.reconcile());
+
+        // When: reconciling
+        assertTrue(stats.reconcile());
+
+        // Then: the UK, London and the no-region count are corrected
+        assertEquals(3, stats.total());
+        assertEquals(List.of(new CustomerCount("Germany", 3)), stats.countBy(CustomerStats.Dimension.COUNTRY));
+        assertEquals(3, meterRegistry.get("customers.stats.corrections").functionCounter().count());
+        assertEquals(2, meterRegistry.get("customers.stats.reconciliations").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("A reconciliation racing a write is put off once, then applied")
+    void testReconcile_RacingWrite() {
+        // Given: seeded counts, and a write recorded while the next GROUP BY runs
+        when(customerRepository.countByLocation()).thenReturn(grouped()).thenAnswer(invocation -> {
+            stats.record(List.of(), List.of(new CustomerLocation("TEST3", "France", "Paris", null)));
+            return grouped();
+        });
+        assertTrue(stats.reconcile());
+
+        // When / Then: the racing result is put aside and the write kept, and the next run applies regardless
+        assertFalse(stats.reconcile());
+        assertEquals(5, stats.total());
+        assertTrue(stats.reconcile());
+        assertEquals(4, stats.total());
+    }
+}
@@ -0,0 +1,163 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.dtos.CustomerDto;
+import com.sparta.northwind.dtos.CustomerSuggestion;
+import com.sparta.northwind.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerSuggestIndexTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new CustomerSuggestIndex(customerRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Loading indexes company and contact names and matches prefixes ignoring case")
+    void testLoadAndSuggest() {
+        // Given: the repository streams two customers
+        when(customerRepository.streamAllDtos()).thenReturn(Stream.of(
+                new CustomerDto("TEST1", "Test Company Ltd", "Tess User", "London"),
+                new CustomerDto("TEST2", "Mock Corp", null, null)));
+
+        // When: loading the index and typing "TES"
+        suggestIndex.load();
+        List<CustomerSuggestion> suggestions = suggestIndex.suggest("TES", 10);
+
+        // Then: should return both names of the first customer in alphabetical order
+        assertEquals(List.of(
+                new CustomerSuggestion("TEST1", "Tess User", CustomerSuggestion.Field.CONTACT_NAME),
+                new CustomerSuggestion("TEST1", "Test Company Ltd", CustomerSuggestion.Field.COMPANY_NAME)),
+                suggestions);
+        assertEquals(3, suggestIndex.size());
+        assertTrue(suggestIndex.estimatedMemoryBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Suggest stops at the limit")
+    void testSuggest_Limit() {
+        // Given: three customers whose names share a prefix
+        suggestIndex.put("TEST1", "Test One", null);
+        suggestIndex.put("TEST2", "Test Two", null);
+        suggestIndex.put("TEST3", "Test Three", null);
+
+        // When / Then: should return only the first two matches
+        assertEquals(2, suggestIndex.suggest("test", 2).size());
+    }
+
+    @Test
+    @DisplayName("Updates replace the old names and deletes remove them")
+    void testPutPatchRemove() {
+        // Given: an indexed customer
+        suggestIndex.put("TEST1", "Test Company Ltd", "Test User");
+
+        // When: renaming the company only
+        suggestIndex.patch("TEST1", "Mock Corp", null);
+
+        // Then: the old company name is gone and the contact name is kept
+        assertEquals(List.of(new CustomerSuggestion("TEST1", "Test User", CustomerSuggestion.Field.CONTACT_NAME)),
+                suggestIndex.suggest("test", 10));
+        assertEquals(1, suggestIndex.suggest("mock", 10).size());
+
+        // When: deleting the customer
+        suggestIndex.remove("TEST1");
+
+        // Then: nothing is left, including the memory estimate
+        assertEquals(0, suggestIndex.size());
+        assertEquals(0, suggestIndex.estimatedMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Patching a customer not indexed yet indexes its full row, not just the patched name")
+    void testPatch_NotIndexed() {
+        // Given: a customer the index has not seen, whose contact name the patch leaves alone
+        when(customerRepository.findDtoById("TEST1"))
+                .thenReturn(Optional.of(new CustomerDto("TEST1", "Renamed Ltd", "Test User", "London")));
+
+        // When: renaming its company
+        suggestIndex.patch("TEST1", "Renamed Ltd", null);
+
+        // Then: both names are suggested
+        assertEquals(1, suggestIndex.suggest("renamed", 10).size());
+        assertEquals(List.of(new CustomerSuggestion("TEST1", "Test User", CustomerSuggestion.Field.CONTACT_NAME)),
+                suggestIndex.suggest("test", 10));
+    }
+
+    @Test
+    @DisplayName("Loading does not overwrite customers written while the scan was running")
+    void testLoad_KeepsNewerWrites() {
+        // Given: a customer renamed through the service before the scan reached it
+        suggestIndex.put("TEST1", "Renamed Ltd", null);
+        when(customerRepository.streamAllDtos()).thenReturn(Stream.of(
+                new CustomerDto("TEST1", "Test Company Ltd", null, null)));
+
+        // When: loading the index
+        suggestIndex.load();
+
+        // Then: the newer name is kept
+        assertTrue(suggestIndex.suggest("test", 10).isEmpty());
+        assertEquals(1, suggestIndex.suggest("renamed", 10).size());
+    }
+
+    @Test
+    @DisplayName("Loading does not add back customers deleted while the scan was running")
+    void testLoad_SkipsDeletes() {
+        // Given: TEST2 is deleted after the scan started but before it was read
+        when(customerRepository.streamAllDtos()).thenAnswer(invocation -> {
+            suggestIndex.remove("TEST2");
+            return Stream.of(new CustomerDto("TEST1", "Test Company Ltd", null, null),
+                    new CustomerDto("TEST2", "Test Deleted Ltd", null, null));
+        });
+
+        // When: loading the index
+        suggestIndex.load();
+
+        // Then: only the remaining customer is suggested
+        assertEquals(List.of(new CustomerSuggestion("TEST1", "Test Company Ltd", CustomerSuggestion.Field.COMPANY_NAME)),
+                suggestIndex.suggest("test", 10));
+    }
+
+    @Test
+    @DisplayName("The index holds readiness until the background scan has ended, even when it fails")
+    void testStart_Readiness() throws InterruptedException {
+        // Given: a scan that fails
+        when(customerRepository.streamAllDtos()).thenThrow(new QueryTimeoutException("Timed out"));
+        assertEquals(Status.OUT_OF_SERVICE, suggestIndex.health().getStatus());
+
+        // When: starting the load in the background
+        suggestIndex.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!suggestIndex.isLoaded() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then: the index reports UP with the error, so a broken scan cannot stall a rollout
+        assertEquals(Status.UP, suggestIndex.health().getStatus());
+        assertTrue(suggestIndex.health().getDetails().containsKey("error"));
+    }
+}
@@ -0,0 +1,251 @@
+package com.sparta.northwind.services;
+
+import com.sparta.northwind.CacheConfig;
+import com.sparta.northwind.dtos.CustomerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerWriteBehindQueueTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.CUSTOMERS_CACHE);
+        meterRegistry = new SimpleMeterRegistry();
+        // Timed flushes are pushed out of the way so each test flushes when it chooses
+        queue = new CustomerWriteBehindQueue(customerService, cacheManager, 3, 100, Duration.ofHours(1), 3);
+        queue.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.destroy();
+    }
+
+    @Test
+    @DisplayName("Repeated updates of a customer are written once, with the last value")
+    void testFlush_CoalescesPerCustomer() {
+        // Given: three updates of one customer and one of another
+        queue.offer(customer("TEST1", "First Ltd"));
+        queue.offer(customer("TEST2", "Mock Corp"));
+        queue.offer(customer("TEST1", "Second Ltd"));
+        queue.offer(customer("TEST1", "Third Ltd"));
+        assertEquals(2, queue.size());
+
+        // When: flushing
+        queue.flush();
+
+        // Then: one write per customer, in first-queued order, and the cache holds the written value
+        verify(customerService).applyUpdates(List.of(customer("TEST1", "Third Ltd"), customer("TEST2", "Mock Corp")));
+        assertEquals(customer("TEST1", "Third Ltd"), cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1").get());
+        assertEquals(0.5, meterRegistry.get("customers.write.behind.coalescing.ratio").gauge().value());
+        assertEquals(2, meterRegistry.get("customers.write.behind.written").functionCounter().count());
+        assertEquals(0, meterRegistry.get("customers.write.behind.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A full queue refuses new customers but still takes updates of queued ones")
+    void testOffer_FullQueue() {
+        // Given: the queue holds its capacity of three customers
+        assertTrue(queue.offer(customer("TEST1", "Test Company Ltd")));
+        assertTrue(queue.offer(customer("TEST2", "Mock Corp")));
+        assertTrue(queue.offer(customer("TEST3", "Dummy Inc")));
+
+        // When / Then: a fourth customer is refused, a queued one can still change
+        assertFalse(queue.offer(customer("TEST4", "Sample Co")));
+        assertTrue(queue.offer(customer("TEST2", "Mock Corp Renamed")));
+        assertEquals(1, meterRegistry.get("customers.write.behind.updates").tag("outcome", "rejected").functionCounter().count());
+
+        // When / Then: once flushed there is room again
+        queue.flush();
+        assertTrue(queue.offer(customer("TEST4", "Sample Co")));
+    }
+
+    @Test
+    @DisplayName("A failed flush is retried without overwriting newer updates")
+    void testFlush_FailureRequeues() {
+        // Given: the first write fails and a newer update arrives while it is being written
+        queue.offer(customer("TEST1", "Old Ltd"));
+        queue.offer(customer("TEST2", "Mock Corp"));
+        doAnswer(invocation -> {
+            queue.offer(customer("TEST1", "New Ltd"));
+            throw new QueryTimeoutException("Simulated timeout");
+        }).doNothing().when(customerService).applyUpdates(anyList());
+
+        // When: flushing twice
+        queue.flush();
+        assertEquals(2, queue.size());
+        queue.flush();
+
+        // Then: the retry writes the newer value of TEST1 and the failed value of TEST2
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CustomerDto>> batches = ArgumentCaptor.forClass(List.class);
+        verify(customerService, times(2)).applyUpdates(batches.capture());
+        assertEquals(List.of(customer("TEST1", "New Ltd"), customer("TEST2", "Mock Corp")), batches.getAllValues().get(1));
+        assertEquals(1, meterRegistry.get("customers.write.behind.failures").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("A retry that succeeds clears the customer's failed attempts")
+    void testFlush_RetrySuccessClearsAttempts() {
+        // Given: TEST2's batch has failed twice
+        queue.offer(customer("TEST2", "Mock Corp"));
+        doThrow(new QueryTimeoutException("Simulated timeout")).doThrow(new QueryTimeoutException("Simulated timeout"))
+                .doNothing().when(customerService).applyUpdates(anyList());
+        queue.flush();
+        queue.flush();
+        assertEquals(1, queue.retrying());
+
+        // When: the next flush writes it
+        queue.flush();
+
+        // Then: nothing is kept for it
+        assertEquals(0, queue.retrying());
+        assertEquals(0, meterRegistry.get("customers.write.behind.retrying").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A batch that keeps failing is written one customer at a time and the bad one dropped")
+    void testFlush_PoisonBatchDeadLettered() {
+        // Given: every write including TEST1 fails
+        queue.offer(customer("TEST1", "Bad Ltd"));
+        queue.offer(customer("TEST2", "Mock Corp"));
+        doThrow(new QueryTimeoutException("Data too long")).when(customerService)
+                .applyUpdates(argThat(batch -> batch.contains(customer("TEST1", "Bad Ltd"))));
+
+        // When: flushing up to the three attempts allowed
+        queue.flush();
+        queue.flush();
+        assertEquals(2, queue.size());
+        queue.flush();
+
+        // Then: TEST2 is written on its own, TEST1 is dropped and nothing is left to block later updates
+        verify(customerService).applyUpdates(List.of(customer("TEST2", "Mock Corp")));
+        assertEquals(customer("TEST2", "Mock Corp"), cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST2").get());
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.retrying());
+        assertEquals(1, meterRegistry.get("customers.write.behind.dead.lettered").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Discarding a customer drops its queued update and leaves the others")
+    void testDiscard() {
+        // Given: two queued updates
+        queue.offer(customer("TEST1", "Test Company Ltd"));
+        queue.offer(customer("TEST2", "Mock Corp"));
+
+        // When: TEST1 is about to be deleted
+        queue.discard(List.of("TEST1"));
+        queue.flush();
+
+        // Then: only TEST2 is written
+        verify(customerService).applyUpdates(List.of(customer("TEST2", "Mock Corp")));
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+    }
+
+    @Test
+    @DisplayName("Discarding waits for a flush in progress, so the delete that follows comes after its write and cache put")
+    void testDiscard_WaitsForFlushInProgress() throws Exception {
+        // Given: a flush of TEST1 stuck in the database
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(customerService).applyUpdates(anyList());
+        queue.offer(customer("TEST1", "Test Company Ltd"));
+        CompletableFuture<Void> flushing = CompletableFuture.runAsync(queue::flush);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When: TEST1 is discarded meanwhile
+        CompletableFuture<Void> discarding = CompletableFuture.runAsync(() -> queue.discard(List.of("TEST1")));
+
+        // Then: the discard only returns once the flush has written and cached TEST1
+        Thread.sleep(100);
+        assertFalse(discarding.isDone());
+        release.countDown();
+        discarding.get(5, TimeUnit.SECONDS);
+        flushing.get(5, TimeUnit.SECONDS);
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+    }
+
+    @Test
+    @DisplayName("Flushing given customers writes just their queued updates, now")
+    void testFlush_GivenCustomers() {
+        // Given: two queued updates
+        queue.offer(customer("TEST1", "Test Company Ltd"));
+        queue.offer(customer("TEST2", "Mock Corp"));
+
+        // When: TEST1 is about to be patched
+        queue.flush(List.of("TEST1"));
+
+        // Then: TEST1 alone is written and cached, TEST2 waits for the next flush
+        verify(customerService).applyUpdates(List.of(customer("TEST1", "Test Company Ltd")));
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS_CACHE).get("TEST1"));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    @DisplayName("Reaching the batch size triggers a flush without waiting for the interval")
+    void testOffer_BatchSizeTriggersFlush() throws InterruptedException {
+        // Given: a queue that flushes at two customers
+        CustomerWriteBehindQueue smallBatches = new CustomerWriteBehindQueue(customerService, cacheManager, 10, 2, Duration.ofHours(1), 3);
+        try {
+            // When: queueing two customers
+            smallBatches.offer(customer("TEST1", "Test Company Ltd"));
+            smallBatches.offer(customer("TEST2", "Mock Corp"));
+
+            // Then: they are written in the background
+            verify(customerService, timeout(5000)).applyUpdates(anyList());
+        } finally {
+            smallBatches.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Closing writes what is queued and refuses further updates")
+    void testDestroy_FlushesAndCloses() throws InterruptedException {
+        // Given: a queued update
+        queue.offer(customer("TEST1", "Test Company Ltd"));
+
+        // When: the application shuts down
+        queue.destroy();
+
+        // Then: it was written and nothing more is accepted
+        verify(customerService).applyUpdates(List.of(customer("TEST1", "Test Company Ltd")));
+        assertFalse(queue.offer(customer("TEST2", "Mock Corp")));
+    }
+
+    private static CustomerDto customer(String id, String companyName) {
+        return new CustomerDto(id, companyName, "Test User", "London");
+    }
+}
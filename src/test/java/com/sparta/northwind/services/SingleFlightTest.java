@@ -0,0 +1,126 @@
+package com.sparta.northwind.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 50;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** A load that blocks until released, so callers pile up behind it. */
+    private String blockingLoad(String result) {
+        loads.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        if (result == null) {
+            throw new IllegalStateException("Database unavailable");
+        }
+        return result;
+    }
+
+    private List<Future<String>> startCallers(String result) throws InterruptedException {
+        List<Future<String>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(executor.submit(() -> singleFlight.load("TEST1", () -> blockingLoad(result))));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.coalescedCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return callers;
+    }
+
+    @Test
+    @DisplayName("Concurrent loads of one key run the loader once and all get its result")
+    void testLoad_SharesResult() throws Exception {
+        // Given: fifty callers waiting on a slow load of the same key
+        List<Future<String>> callers = startCallers("Mock Corp");
+        assertEquals(1, singleFlight.inFlightCount());
+
+        // When: the load finishes
+        release.countDown();
+
+        // Then: every caller has the one result, and the key is free again
+        for (Future<String> caller : callers) {
+            assertEquals("Mock Corp", caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS - 1, singleFlight.coalescedCount());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("A failed load's exception reaches every waiting caller and the next load runs afresh")
+    void testLoad_SharesFailure() throws Exception {
+        // Given: fifty callers waiting on a load that will fail
+        List<Future<String>> callers = startCallers(null);
+
+        // When: the load fails
+        release.countDown();
+
+        // Then: each caller gets the loader's own exception, and nothing is left behind
+        for (Future<String> caller : callers) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            assertEquals("Database unavailable", failure.getCause().getMessage());
+        }
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals("Mock Corp", singleFlight.load("TEST1", () -> "Mock Corp"));
+    }
+
+    @Test
+    @DisplayName("Loads of different keys, or of one key one after another, are not shared")
+    void testLoad_NotShared() {
+        assertEquals("TEST1", singleFlight.load("TEST1", () -> "TEST1"));
+        assertEquals("TEST2", singleFlight.load("TEST2", () -> "TEST2"));
+        assertEquals("again", singleFlight.load("TEST1", () -> "again"));
+        assertEquals(0, singleFlight.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("After forget, new callers start their own load while the old one finishes")
+    void testForget() throws Exception {
+        // Given: a slow load in flight
+        Future<String> before = executor.submit(() -> singleFlight.load("TEST1", () -> blockingLoad("Old Ltd")));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // When: the key is forgotten, as after a write
+        singleFlight.forget("TEST1");
+
+        // Then: the next caller loads for itself, and the old load does not remove the new one's entry
+        assertEquals("New Ltd", singleFlight.load("TEST1", () -> "New Ltd"));
+        release.countDown();
+        assertEquals("Old Ltd", before.get(5, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.coalescedCount());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+}
@@ -0,0 +1,16 @@
+-- The customers table of entities.Customer, for the replica database of ReadWriteRoutingTest.
+-- Hibernate only creates tables on the primary.
+CREATE SCHEMA IF NOT EXISTS northwind;
+CREATE TABLE IF NOT EXISTS northwind.customers (
+    CustomerID VARCHAR(5) NOT NULL PRIMARY KEY,
+    CompanyName VARCHAR(40) NOT NULL,
+    ContactName VARCHAR(30),
+    ContactTitle VARCHAR(30),
+    Address VARCHAR(60),
+    City VARCHAR(15),
+    Region VARCHAR(15),
+    PostalCode VARCHAR(10),
+    Country VARCHAR(15),
+    Phone VARCHAR(24),
+    Fax VARCHAR(24)
+);